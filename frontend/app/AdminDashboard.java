@@ -6,34 +6,46 @@ import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
+import java.awt.GridBagLayout;
 import java.awt.GridLayout;
-import java.io.File;
-import java.io.RandomAccessFile;
-import java.nio.file.FileSystems;
-import java.nio.file.Path;
+import java.io.IOException;
 import java.nio.file.Paths;
-import java.nio.file.StandardWatchEventKinds;
-import java.nio.file.WatchEvent;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
+import javax.swing.DefaultListModel;
 import javax.swing.JButton;
+import javax.swing.JDialog;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JTextField;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.border.Border;
 import javax.swing.border.CompoundBorder;
 import javax.swing.border.LineBorder;
 
 import core.ClinicUser;
 import core.IClinicOperations;
+import util.EmergencyAnalytics;
+import util.EmergencyEvent;
 import util.EmergencyLogWriter;
+import util.FileTailer;
+import util.MedicalTextIndex;
+import util.NotificationAggregator;
+import util.StudentDataFetcher;
+import util.StudentDataFetcher.StudentMedicalData;
 
 /**
  * Implements the IClinicOperations Interface.
@@ -92,6 +104,7 @@ public class AdminDashboard extends JPanel implements IClinicOperations {
     private JLabel dashboardIdLabel;
     private JLabel emailLabel;
     private JLabel medicalAlertsLabel; 
+    private JLabel emergencyStatsLabel; // Live emergency numbers on the Medical Alerts card
     private String currentBitsId = "N/A"; 
     private String currentFullName = "Clinic Staff"; // NEW: Store the full name for the notifier
     
@@ -112,9 +125,28 @@ public class AdminDashboard extends JPanel implements IClinicOperations {
     
     // --- NEW: Fields for Notification System ---
     private static final String MESSAGES_FILE = "C:\\Users\\vigne\\Documents\\BPDCCLinic\\oops\\oops\\messages.txt"; //
+    // Messages arriving within this window are shown together (bpdc.notifications.windowMs)
+    private static final long NOTIFICATION_WINDOW_MS = Long.getLong("bpdc.notifications.windowMs", 250);
     private JButton notificationIcon;
-    private int unreadMessagesCount = 0;
-    private long lastMsgSize = 0; // To track file changes
+    private final AtomicInteger unreadMessagesCount = new AtomicInteger();
+    private FileTailer messageTailer; // Follows the messages file for new lines
+    private NotificationAggregator<String> messageAggregator; // Batches bursts of new lines
+    private final NotificationPanel notificationPanel = new NotificationPanel();
+    private JDialog notificationWindow; // Non-modal, created on first use
+
+    // --- Live emergency statistics (fed by the emergency event stream) ---
+    private static final int ANALYTICS_REFRESH_MS = 2000;
+    private static final int TOP_CALLERS_SHOWN = 3;
+    // How much of the emergency log the statistics are seeded from (the longest window they show)
+    private static final long ANALYTICS_SEED_MS = TimeUnit.DAYS.toMillis(1);
+    private final EmergencyAnalytics emergencyAnalytics = new EmergencyAnalytics();
+    private Timer analyticsTimer; // Re-renders the numbers; started with the background services
+
+    // --- Medical records search (allergies / chronic illnesses) ---
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private final DefaultListModel<String> medicalSearchResults = new DefaultListModel<>();
+    private JLabel medicalSearchStatus;
+    private SwingWorker<List<String>, Void> medicalSearchWorker; // Search in flight (null when idle)
 
     public AdminDashboard(BPDCClinicApp app) {
         this.app = app;
@@ -142,9 +174,33 @@ public class AdminDashboard extends JPanel implements IClinicOperations {
         
         // Initialize placeholders with empty data
         updateUserDetails("Clinic Staff", "N/A", "N/A", "N/A");
-        
-        // NEW: Start the file watcher in a separate thread
-        startMessageWatcher(); 
+        // The message watcher is started by startBackgroundServices() when staff log in
+    }
+
+    /**
+     * Starts the services only staff need (the live message watcher and emergency statistics).
+     * Safe to call on every login; they are started once.
+     */
+    public void startBackgroundServices() {
+        if (messageTailer == null) {
+            startMessageWatcher();
+        }
+        if (analyticsTimer == null) {
+            // The log holds everything pressed before this login (or a restart): count the last day
+            // from it, and from then on only the live events, so none is counted twice
+            long seededUntil = System.currentTimeMillis();
+            EmergencyLogWriter.addListener(event -> {
+                if (event.timestampMillis >= seededUntil) {
+                    emergencyAnalytics.onEmergency(event);
+                }
+            });
+            EmergencyLogWriter.addAcknowledgementListener(
+                    event -> emergencyAnalytics.onAcknowledged(event, System.currentTimeMillis()));
+            analyticsTimer = new Timer(ANALYTICS_REFRESH_MS, e -> refreshEmergencyStats());
+            analyticsTimer.start();
+            refreshEmergencyStats();
+            seedEmergencyStats(seededUntil);
+        }
     }
     
     /**
@@ -233,12 +289,9 @@ public class AdminDashboard extends JPanel implements IClinicOperations {
         notificationIcon.setBorderPainted(false);
         notificationIcon.setToolTipText("No unread messages.");
         notificationIcon.addActionListener(e -> {
-            // Placeholder action: show all messages or redirect
-            JOptionPane.showMessageDialog(this, 
-                "You have " + unreadMessagesCount + " unread bot messages.", 
-                "Bot Messages", 
-                JOptionPane.INFORMATION_MESSAGE);
-            unreadMessagesCount = 0;
+            // Show all messages; opening the panel marks them as read
+            showNotificationWindow();
+            unreadMessagesCount.set(0);
             updateNotificationIcon();
         });
 
@@ -263,6 +316,12 @@ public class AdminDashboard extends JPanel implements IClinicOperations {
 
         panel.add(btnWrapper, BorderLayout.EAST);
 
+        // Center: student lookup by name or BITS ID
+        JPanel lookupWrapper = new JPanel(new GridBagLayout());
+        lookupWrapper.setOpaque(false);
+        lookupWrapper.add(new StudentLookupField(this::showStudentDetails));
+        panel.add(lookupWrapper, BorderLayout.CENTER);
+
         return panel;
     }
 
@@ -280,18 +339,28 @@ public class AdminDashboard extends JPanel implements IClinicOperations {
 
         if (result == JOptionPane.YES_OPTION) {
             // UPDATED: Use the combined logAndNotifyEmergency utility
-            if (EmergencyLogWriter.logAndNotifyEmergency(currentBitsId, currentFullName)) {
-                JOptionPane.showMessageDialog(this,
-                        "EMERGENCY ALERT SENT!\nClinic staff and wardens have been notified via Telegram for user: " + currentBitsId,
-                        "ALERT CONFIRMED",
-                        JOptionPane.ERROR_MESSAGE); // Use error icon for urgency
-            } else {
-                 // This is the Exception Handling feedback
-                 JOptionPane.showMessageDialog(this,
-                        "EMERGENCY ALERT FAILED TO LOG OR NOTIFY! Please check file permissions/network.",
-                        "LOG/NOTIFY ERROR",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            // The event is queued immediately; the outcome is reported once it has been persisted
+            String bitsId = currentBitsId;
+            EmergencyLogWriter.logAndNotifyEmergency(bitsId, currentFullName)
+                .thenAccept(logged -> SwingUtilities.invokeLater(() -> showEmergencyResult(bitsId, logged)));
+        }
+    }
+
+    /**
+     * Shows the outcome of an emergency call once the pipeline has confirmed it.
+     */
+    private void showEmergencyResult(String bitsId, boolean logged) {
+        if (logged) {
+            JOptionPane.showMessageDialog(this,
+                    "EMERGENCY ALERT SENT!\nClinic staff and wardens have been notified via Telegram for user: " + bitsId,
+                    "ALERT CONFIRMED",
+                    JOptionPane.ERROR_MESSAGE); // Use error icon for urgency
+        } else {
+            // This is the Exception Handling feedback
+            JOptionPane.showMessageDialog(this,
+                    "EMERGENCY ALERT FAILED TO LOG OR NOTIFY! Please check file permissions/network.",
+                    "LOG/NOTIFY ERROR",
+                    JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -302,10 +371,11 @@ public class AdminDashboard extends JPanel implements IClinicOperations {
      */
     private void updateNotificationIcon() {
         SwingUtilities.invokeLater(() -> {
-            notificationIcon.setText("✉ (" + unreadMessagesCount + ")");
-            if (unreadMessagesCount > 0) {
+            int unread = unreadMessagesCount.get();
+            notificationIcon.setText("✉ (" + unread + ")");
+            if (unread > 0) {
                 notificationIcon.setBackground(BAR_RED); // Use red to signify urgency/unread
-                notificationIcon.setToolTipText(unreadMessagesCount + " new bot messages received.");
+                notificationIcon.setToolTipText(unread + " new bot messages received.");
             } else {
                 notificationIcon.setBackground(BRAND_BLUE.brighter());
                 notificationIcon.setToolTipText("No unread messages.");
@@ -314,90 +384,62 @@ public class AdminDashboard extends JPanel implements IClinicOperations {
     }
 
     /**
-     * Displays a live pop-up notification.
-     * @param message The content of the new log entry.
+     * Displays a batch of new messages in the notification window.
+     * Called once per aggregation window however many messages arrived in it,
+     * so a burst costs one EDT task and one repaint instead of one dialog per line.
+     * @param messages The content of the new log entries.
      */
-    private void showLiveNotification(String message) {
+    private void showLiveNotifications(List<String> messages) {
+        // Count them now, in one step, so the icon never shows a partial batch
+        unreadMessagesCount.addAndGet(messages.size());
         SwingUtilities.invokeLater(() -> {
-            // Show Pop-up notification
-            JOptionPane.showMessageDialog(
-                this, 
-                "New Bot Message Received:\n" + message, 
-                "Live Notification", 
-                JOptionPane.INFORMATION_MESSAGE
-            );
-            
-            // Update Icon
-            unreadMessagesCount++;
+            notificationPanel.appendAll(messages);
             updateNotificationIcon();
+            if (notificationWindow == null || !notificationWindow.isVisible()) {
+                showNotificationWindow();
+            }
         });
     }
 
     /**
-     * Initializes and runs the Java WatchService in a background thread
-     * to monitor the messages.txt file for new logs.
+     * Shows the non-modal notification window (the dashboard stays usable behind it).
      */
-    private void startMessageWatcher() {
-        new Thread(() -> {
-            try {
-                Path filePath = Paths.get(MESSAGES_FILE);
-                Path dir = filePath.getParent();
-                if (dir == null) {
-                    System.err.println("Error: Parent directory for messages file not found.");
-                    return;
-                }
-                
-                WatchService watchService = FileSystems.getDefault().newWatchService();
-                dir.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY);
-                
-                // Initialize last size check
-                File msgFile = filePath.toFile();
-                if (msgFile.exists()) {
-                     lastMsgSize = msgFile.length();
-                } else {
-                     System.out.println("Messages file not found, starting tracking from zero.");
-                }
-
-                while (true) {
-                    WatchKey key;
-                    try {
-                        key = watchService.take();
-                    } catch (InterruptedException ex) {
-                        return;
-                    }
+    private void showNotificationWindow() {
+        if (notificationWindow == null) {
+            notificationWindow = new JDialog(SwingUtilities.getWindowAncestor(this), "Live Notifications");
+            notificationWindow.setModal(false);
+            notificationWindow.setAutoRequestFocus(false); // Don't steal focus from the form being used
+            notificationWindow.setContentPane(notificationPanel);
+            notificationWindow.setSize(700, 400);
+            notificationWindow.setLocationRelativeTo(this);
+        }
+        notificationWindow.setVisible(true);
+    }
 
-                    for (WatchEvent<?> event : key.pollEvents()) {
-                        if (event.kind() == StandardWatchEventKinds.ENTRY_MODIFY) {
-                            File changedFile = dir.resolve((Path) event.context()).toFile();
-                            
-                            // Check only for the target file
-                            if (changedFile.getAbsolutePath().equals(msgFile.getAbsolutePath())) {
-                                long newSize = changedFile.length();
-                                if (newSize > lastMsgSize) {
-                                    // Read new content from the last known position
-                                    try (RandomAccessFile raf = new RandomAccessFile(changedFile, "r")) {
-                                        raf.seek(lastMsgSize);
-                                        String line;
-                                        while ((line = raf.readLine()) != null) {
-                                            // Show the raw log entry as the message content
-                                            if (!line.trim().isEmpty()) {
-                                                showLiveNotification(line.trim());
-                                            }
-                                        }
-                                        lastMsgSize = newSize;
-                                    } catch (Exception e) {
-                                        System.err.println("Error reading new log entry: " + e.getMessage());
-                                    }
-                                }
-                            }
-                        }
-                    }
-                    key.reset();
+    /**
+     * Starts a FileTailer on the messages.txt file so new bot messages
+     * are shown as live notifications.
+     */
+    private void startMessageWatcher() {
+        messageAggregator = new NotificationAggregator<>(NOTIFICATION_WINDOW_MS, this::showLiveNotifications, "NotificationAggregator");
+        messageTailer = new FileTailer(Paths.get(MESSAGES_FILE), true);
+        messageTailer.subscribe(lines -> {
+            List<String> messages = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                // Show the raw log entry as the message content
+                if (!line.trim().isEmpty()) {
+                    messages.add(line.trim());
                 }
-            } catch (Exception e) {
-                System.err.println("Message Watcher Error: " + e.getMessage());
             }
-        }, "MessageWatcherThread").start();
+            if (!messages.isEmpty()) {
+                messageAggregator.addAll(messages);
+            }
+        });
+        try {
+            messageTailer.start();
+        } catch (IOException e) {
+            System.err.println("Message Watcher Error: " + e.getMessage());
+        }
     }
 
 
@@ -417,8 +459,14 @@ public class AdminDashboard extends JPanel implements IClinicOperations {
 
         JPanel clinicsPanel = createClinicsCard();
 
+        // Facilities and the medical records search side by side
+        JPanel lowerGrid = new JPanel(new GridLayout(1, 2, 30, 0));
+        lowerGrid.setOpaque(false);
+        lowerGrid.add(clinicsPanel);
+        lowerGrid.add(createMedicalSearchCard());
+
         dashboard.add(cardGrid, BorderLayout.NORTH);
-        dashboard.add(clinicsPanel, BorderLayout.CENTER);
+        dashboard.add(lowerGrid, BorderLayout.CENTER);
 
         return dashboard;
     }
@@ -468,12 +516,206 @@ public class AdminDashboard extends JPanel implements IClinicOperations {
         medicalAlertsLabel = new JLabel("N/A"); 
         medicalAlertsLabel.setFont(BODY_FONT_PLAIN);
         medicalAlertsLabel.setForeground(BAR_RED.darker());
-        contentPanel.add(medicalAlertsLabel, BorderLayout.CENTER);
+        contentPanel.add(medicalAlertsLabel, BorderLayout.NORTH);
+
+        emergencyStatsLabel = new JLabel(" ");
+        emergencyStatsLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        emergencyStatsLabel.setForeground(DARK_BLUE);
+        emergencyStatsLabel.setBorder(BorderFactory.createEmptyBorder(8, 0, 0, 0));
+        contentPanel.add(emergencyStatsLabel, BorderLayout.CENTER);
         
         card.remove(card.getComponent(1)); 
         card.add(contentPanel, BorderLayout.CENTER);
         return card;
     }
+
+    /**
+     * Feeds the emergencies logged in the day before seededUntil to the statistics (read off the EDT).
+     */
+    private void seedEmergencyStats(long seededUntil) {
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                for (EmergencyEvent event : EmergencyLogWriter.findEmergencies(seededUntil - ANALYTICS_SEED_MS, seededUntil)) {
+                    emergencyAnalytics.onEmergency(event);
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                refreshEmergencyStats();
+            }
+        }.execute();
+    }
+
+    /**
+     * Renders the live emergency numbers on the Medical Alerts card (on the EDT).
+     */
+    private void refreshEmergencyStats() {
+        EmergencyAnalytics.Snapshot stats = emergencyAnalytics.snapshot(System.currentTimeMillis(), TOP_CALLERS_SHOWN);
+        StringBuilder callers = new StringBuilder();
+        for (EmergencyAnalytics.Caller caller : stats.topCallers) {
+            if (callers.length() > 0) callers.append(", ");
+            callers.append(caller.bitsId).append(" &times;").append(caller.presses);
+        }
+        emergencyStatsLabel.setText("<html>Emergencies (1h / 24h): " + stats.incidentsLastHour + " / " + stats.incidentsLast24Hours
+                + "<br>Button presses (1h / 24h): " + stats.pressesLastHour + " / " + stats.pressesLast24Hours
+                + "<br>Repeat callers: " + (callers.length() > 0 ? callers : "none")
+                + "<br>Time to acknowledge: " + (stats.ackCount == 0 ? "n/a"
+                        : "p50 " + formatAckBound(stats.ackPercentileBound(50))
+                        + ", p95 " + formatAckBound(stats.ackPercentileBound(95)))
+                + "</html>");
+    }
+
+    private static String formatAckBound(long boundMillis) {
+        if (boundMillis == Long.MAX_VALUE) {
+            long last = EmergencyAnalytics.ACK_BUCKET_BOUNDS[EmergencyAnalytics.ACK_BUCKET_BOUNDS.length - 1];
+            return "&gt; " + last / 60_000 + " min";
+        }
+        return boundMillis < 60_000 ? "&lt; " + boundMillis / 1000 + " s" : "&lt; " + boundMillis / 60_000 + " min";
+    }
+    
+    /**
+     * Shows the registration details of a student picked in the lookup field.
+     * The record is read off the EDT.
+     */
+    private void showStudentDetails(String bitsId) {
+        new SwingWorker<Optional<StudentMedicalData>, Void>() {
+            @Override
+            protected Optional<StudentMedicalData> doInBackground() {
+                return StudentDataFetcher.fetchStudentData(bitsId);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    Optional<StudentMedicalData> data = get();
+                    if (!data.isPresent()) {
+                        JOptionPane.showMessageDialog(AdminDashboard.this,
+                                "No registration found for " + bitsId + ".",
+                                "Student Lookup", JOptionPane.WARNING_MESSAGE);
+                        return;
+                    }
+                    StudentMedicalData d = data.get();
+                    JOptionPane.showMessageDialog(AdminDashboard.this,
+                            "Name: " + d.fullName
+                            + "\nBITS ID: " + d.bitsId
+                            + "\nEmail: " + d.email
+                            + "\nMobile: " + d.mobileNo
+                            + "\nBlood Type: " + d.getBloodType()
+                            + "\nAllergies: " + d.allergies
+                            + "\nChronic Illnesses: " + d.chronicIllnesses,
+                            "Student Details", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Student Lookup Error: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Card for searching every student's allergies and chronic illnesses,
+     * answered from the full-text index off the EDT.
+     */
+    private JPanel createMedicalSearchCard() {
+        JPanel card = new JPanel(new BorderLayout(10, 10));
+        card.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createTitledBorder(
+                    BorderFactory.createLineBorder(DARK_BLUE, 1), 
+                    "Search Allergies & Conditions", 
+                    0, 
+                    0, 
+                    CARD_TITLE_FONT, 
+                    DARK_BLUE),
+                BorderFactory.createEmptyBorder(15, 15, 15, 15)
+        ));
+        card.setBackground(Color.WHITE);
+
+        JTextField queryField = new JTextField();
+        queryField.setFont(BODY_FONT_PLAIN);
+        queryField.setToolTipText("e.g.  penicillin   |   allergies:peanut OR allergies:shellfish   |   asthma -seasonal");
+
+        JButton searchBtn = new JButton("Search");
+        searchBtn.setBackground(BRAND_BLUE);
+        searchBtn.setForeground(Color.WHITE);
+        searchBtn.setFont(new Font("Arial", Font.BOLD, 16));
+        searchBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        searchBtn.setFocusPainted(false);
+        searchBtn.setBorderPainted(false);
+
+        queryField.addActionListener(e -> runMedicalSearch(queryField.getText()));
+        searchBtn.addActionListener(e -> runMedicalSearch(queryField.getText()));
+
+        JPanel queryRow = new JPanel(new BorderLayout(10, 0));
+        queryRow.setOpaque(false);
+        queryRow.add(queryField, BorderLayout.CENTER);
+        queryRow.add(searchBtn, BorderLayout.EAST);
+        card.add(queryRow, BorderLayout.NORTH);
+
+        JList<String> resultList = new JList<>(medicalSearchResults);
+        resultList.setFont(BODY_FONT_PLAIN);
+        JScrollPane scrollPane = new JScrollPane(resultList);
+        scrollPane.setBorder(BorderFactory.createLineBorder(LIGHT_GRAY_BORDER, 1));
+        card.add(scrollPane, BorderLayout.CENTER);
+
+        medicalSearchStatus = new JLabel(" ");
+        medicalSearchStatus.setFont(BODY_FONT_PLAIN);
+        medicalSearchStatus.setForeground(Color.GRAY.darker());
+        card.add(medicalSearchStatus, BorderLayout.SOUTH);
+
+        return card;
+    }
+
+    /**
+     * Runs a medical records search in the background and shows the results.
+     * A search still running when a new one starts is cancelled.
+     */
+    private void runMedicalSearch(String query) {
+        if (query.trim().isEmpty()) {
+            return;
+        }
+        if (medicalSearchWorker != null) {
+            medicalSearchWorker.cancel(true);
+        }
+        medicalSearchStatus.setText("Searching...");
+
+        SwingWorker<List<String>, Void> worker = new SwingWorker<List<String>, Void>() {
+            @Override
+            protected List<String> doInBackground() {
+                List<String> rows = new ArrayList<>();
+                for (MedicalTextIndex.Hit hit : StudentDataFetcher.searchMedicalNotes(query, MAX_SEARCH_RESULTS)) {
+                    // Only the top hits are read (through the record cache) to show their details
+                    Optional<StudentMedicalData> data = StudentDataFetcher.fetchStudentData(hit.bitsId);
+                    rows.add(data.map(d -> d.bitsId + " - " + d.fullName
+                                    + "  |  Allergies: " + d.allergies + "  |  Conditions: " + d.chronicIllnesses)
+                                 .orElse(hit.bitsId));
+                }
+                return rows;
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || medicalSearchWorker != this) {
+                    return;
+                }
+                medicalSearchWorker = null;
+                medicalSearchResults.clear();
+                try {
+                    List<String> rows = get();
+                    medicalSearchResults.addAll(rows);
+                    medicalSearchStatus.setText(rows.isEmpty() ? "No matching students."
+                            : rows.size() == MAX_SEARCH_RESULTS ? "Showing the top " + MAX_SEARCH_RESULTS + " matches."
+                            : rows.size() + " matching student(s).");
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Medical Search Error: " + e.getMessage());
+                    medicalSearchStatus.setText("Search failed.");
+                }
+            }
+        };
+        medicalSearchWorker = worker;
+        worker.execute();
+    }
     
     private JPanel createTopColorBar() {
         JPanel barPanel = new JPanel();
@@ -2,6 +2,11 @@ package app;
 
 import java.awt.CardLayout;
 import java.awt.Dimension;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
@@ -11,49 +16,87 @@ public class BPDCClinicApp extends JFrame {
 
     // Removed the duplicate nested definitions of IClinicOperations and ClinicUser.
 
+    // Build the other screens in the background once the login screen is up (bpdc.ui.prewarm)
+    private static final boolean PREWARM_SCREENS =
+        Boolean.parseBoolean(System.getProperty("bpdc.ui.prewarm", "true"));
+
+    // When main() was entered, for the startup report
+    private static long launchNanos;
+
+    /**
+     * A card that is only built (and added to the CardLayout) the first time it is needed.
+     * Must be used on the EDT.
+     */
+    private class LazyScreen<T extends JPanel> {
+        private final String name;
+        private final Supplier<T> factory;
+        private T panel;
+
+        LazyScreen(String name, Supplier<T> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        T get() {
+            if (panel == null) {
+                panel = factory.get();
+                mainPanel.add(panel, name);
+            }
+            return panel;
+        }
+
+        T show() {
+            T screen = get();
+            cardLayout.show(mainPanel, name);
+            return screen;
+        }
+    }
+
     private final CardLayout cardLayout = new CardLayout();
     private final JPanel mainPanel = new JPanel(cardLayout);
-    
-    // Reference to the dashboard components
-    private final AdminDashboard adminDashboardPanel; 
-    private final StudentDashboard studentDashboardPanel; 
-    private final BPDCLoginFullScreen loginPanel;
+
+    // Screens, each built on first use
+    private final LazyScreen<BPDCLoginFullScreen> loginScreen =
+        new LazyScreen<>("Login", () -> new BPDCLoginFullScreen(this));
+    private final LazyScreen<MedicalInfoForm> medicalFormScreen =
+        new LazyScreen<>("MedicalForm", () -> new MedicalInfoForm(this));
+    private final LazyScreen<AdminDashboard> adminDashboardScreen =
+        new LazyScreen<>("AdminDashboard", () -> new AdminDashboard(this));
+    private final LazyScreen<StudentDashboard> studentDashboardScreen =
+        new LazyScreen<>("StudentDashboard", () -> new StudentDashboard(this));
 
     public BPDCClinicApp() {
         setTitle("BPDC Clinic System");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setExtendedState(JFrame.MAXIMIZED_BOTH); // Full Screen
         setMinimumSize(new Dimension(800, 600));
-        
-        // 1. Initialize Panels
-        // Note: Dashboards need to be created before MedicalInfoForm and Login 
-        // because those panels need to access the nested Student/Staff classes.
-        adminDashboardPanel = new AdminDashboard(this); 
-        studentDashboardPanel = new StudentDashboard(this); 
-        loginPanel = new BPDCLoginFullScreen(this);
-        JPanel medicalFormPanel = new MedicalInfoForm(this);
-        
-
-        // 2. Add panels to the CardLayout
-        mainPanel.add(loginPanel, "Login");
-        mainPanel.add(medicalFormPanel, "MedicalForm");
-        mainPanel.add(adminDashboardPanel, "AdminDashboard"); 
-        mainPanel.add(studentDashboardPanel, "StudentDashboard"); 
-        
-        add(mainPanel);
-        setVisible(true);
 
-        // Start with the login screen
+        // 1. Only the login screen is built up front; the rest are built when first shown
+        add(mainPanel);
         showLogin();
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // Runs after the first paint of the login screen has been queued
+                SwingUtilities.invokeLater(() -> {
+                    reportStartupTime();
+                    if (PREWARM_SCREENS) {
+                        prewarmScreens();
+                    }
+                });
+            }
+        });
+        setVisible(true);
     }
 
     public void showLogin() {
-        cardLayout.show(mainPanel, "Login");
+        loginScreen.show();
         setTitle("BPDC Clinic System - Login");
     }
 
     public void showMedicalForm() {
-        cardLayout.show(mainPanel, "MedicalForm");
+        medicalFormScreen.show();
         setTitle("BPDC Clinic System - Medical Registration");
     }
 
@@ -64,30 +107,65 @@ public class BPDCClinicApp extends JFrame {
      */
     public void showAdminDashboard(AdminDashboard.Staff staff) {
         String alerts = staff.getPendingActionStatus();
+        AdminDashboard adminDashboardPanel = adminDashboardScreen.show();
         adminDashboardPanel.updateUserDetails(staff.getFullName(), staff.getBitsId(), staff.getEmail(), alerts);
-        cardLayout.show(mainPanel, "AdminDashboard");
+        // Staff-only services start with the first staff login
+        adminDashboardPanel.startBackgroundServices();
         setTitle(staff.getDashboardTitle());
     }
-    
+
     /**
      * Accepts Student object.
      * FIX: Signature is changed back to accept Student object to resolve compilation errors.
      * @param student The Student object.
      */
     public void showStudentDashboard(StudentDashboard.Student student) {
-        
+
         // Use the object's Encapsulated logic to generate the alert message
-        String alerts = student.getAlertsStatus(); 
-        
+        String alerts = student.getAlertsStatus();
+
         // Pass encapsulated user data to the dashboard
         // Note: The StudentDashboard.updateUserDetails(String...) method is still present but redundant.
-        studentDashboardPanel.updateUserDetails(student); 
-        cardLayout.show(mainPanel, "StudentDashboard");
+        StudentDashboard studentDashboardPanel = studentDashboardScreen.show();
+        studentDashboardPanel.updateUserDetails(student);
         setTitle(student.getDashboardTitle());
     }
 
+    /**
+     * Loads the remaining screens' classes on a background thread, then builds each
+     * screen in its own EDT task so the login screen stays responsive meanwhile.
+     * Building a screen does not start its background services.
+     */
+    private void prewarmScreens() {
+        Thread prewarm = new Thread(() -> {
+            for (String className : List.of("app.MedicalInfoForm", "app.StudentDashboard", "app.AdminDashboard")) {
+                try {
+                    Class.forName(className);
+                } catch (ClassNotFoundException e) {
+                    System.err.println("Error pre-loading screen " + className + ": " + e.getMessage());
+                }
+            }
+            SwingUtilities.invokeLater(medicalFormScreen::get);
+            SwingUtilities.invokeLater(studentDashboardScreen::get);
+            SwingUtilities.invokeLater(adminDashboardScreen::get);
+        }, "ScreenPrewarm");
+        prewarm.setDaemon(true);
+        prewarm.start();
+    }
+
+    /**
+     * Prints how long it took from launch until the login screen could take input.
+     */
+    private static void reportStartupTime() {
+        long sinceMainMs = (System.nanoTime() - launchNanos) / 1_000_000;
+        long sinceJvmStartMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("Startup: first interactive frame " + sinceMainMs + " ms after main() ("
+                + sinceJvmStartMs + " ms after JVM start)");
+    }
+
     public static void main(String[] args) {
+        launchNanos = System.nanoTime();
         // Run on the Event Dispatch Thread
         SwingUtilities.invokeLater(BPDCClinicApp::new);
     }
-}
\ No newline at end of file
+}
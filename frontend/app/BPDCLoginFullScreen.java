@@ -9,7 +9,10 @@ import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.Border;
@@ -17,6 +20,8 @@ import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import util.CredentialManager;
+import util.StudentDataFetcher;
+import util.StudentDataFetcher.StudentMedicalData;
 
 
 // CHANGED: Extends JPanel instead of JFrame
@@ -27,6 +32,12 @@ public class BPDCLoginFullScreen extends JPanel {
     
     // UI components needed for logic
     private JTextField usernameField;
+    private JButton continueButton;
+    private JButton cancelLoginButton;
+    private JLabel loginStatusLabel;
+    
+    // Background login currently in flight (null when idle)
+    private SwingWorker<LoginResult, String> loginWorker;
     
     // --- Placeholder Strings (Static now, focused on Student ID) ---
     private static final String STUDENT_PLACEHOLDER = "BITS ID (20XXAXPSXXXU or Nurse ID)";
@@ -80,12 +91,22 @@ public class BPDCLoginFullScreen extends JPanel {
         usernameField = createPlaceholderTextField(STUDENT_PLACEHOLDER); 
         JPasswordField passwordField = createPlaceholderPasswordField(PASSWORD_PLACEHOLDER);
         
-        JButton continueButton = new JButton("Login"); // Changed text to Login
+        continueButton = new JButton("Login"); // Changed text to Login
         stylePrimaryButton(continueButton);
         
         // Action listener for "Login" button -> LOGIN VERIFICATION
         continueButton.addActionListener(e -> attemptLogin(usernameField, passwordField));
 
+        // Progress/cancel row, only visible while a login is running
+        loginStatusLabel = new JLabel(" ");
+        loginStatusLabel.setFont(INPUT_FONT);
+        loginStatusLabel.setForeground(PLACEHOLDER_TEXT.darker());
+        loginStatusLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        cancelLoginButton = createLinkButton("Cancel", BRAND_RED);
+        cancelLoginButton.setVisible(false);
+        cancelLoginButton.addActionListener(e -> cancelLogin());
+
         JButton createAccountBtn = createLinkButton("Create an account", BRAND_BLUE);
         
         // Action listener for "Create an account" button -> Redirection only
@@ -102,7 +123,10 @@ public class BPDCLoginFullScreen extends JPanel {
         formBox.add(passwordField);
         formBox.add(Box.createVerticalStrut(30));
         formBox.add(continueButton);
-        formBox.add(Box.createVerticalStrut(30));
+        formBox.add(Box.createVerticalStrut(10));
+        formBox.add(loginStatusLabel);
+        formBox.add(cancelLoginButton);
+        formBox.add(Box.createVerticalStrut(20));
         formBox.add(createAccountBtn);
         formBox.add(Box.createVerticalStrut(10));
         formBox.add(forgotPasswordBtn);
@@ -130,11 +154,30 @@ public class BPDCLoginFullScreen extends JPanel {
         add(bottomBarPanel, BorderLayout.SOUTH);
     }
     
+    /**
+     * Outcome of a background login: the verified role (empty if rejected)
+     * and the student's medical profile, if one was found.
+     */
+    private static class LoginResult {
+        final Optional<String> role;
+        final Optional<StudentMedicalData> profile;
+
+        LoginResult(Optional<String> role, Optional<StudentMedicalData> profile) {
+            this.role = role;
+            this.profile = profile;
+        }
+    }
+
     /**
      * Handles the login attempt, verifying credentials against the CSV file.
-     * Demonstrates: Polymorphism (creating concrete subclass objects and passing them to the main app).
+     * The credential check and the medical profile lookup run in parallel off the EDT,
+     * so the UI stays responsive and can cancel the attempt.
      */
     private void attemptLogin(JTextField bitsIdField, JPasswordField passwordField) {
+        if (loginWorker != null) {
+            return; // A login is already in progress
+        }
+
         String bitsId = bitsIdField.getText().trim();
         String password = String.valueOf(passwordField.getPassword());
         
@@ -144,12 +187,76 @@ public class BPDCLoginFullScreen extends JPanel {
             return;
         }
 
-        // 2. Verify credentials using the manager
-        Optional<String> verifiedRole = credentialManager.verifyCredentials(bitsId, password);
+        // 2. Verify credentials and fetch the profile in the background
+        loginWorker = new SwingWorker<LoginResult, String>() {
+            @Override
+            protected LoginResult doInBackground() throws Exception {
+                publish("Verifying credentials...");
+                // Start the profile lookup first so it overlaps with the credential check
+                CompletableFuture<Optional<StudentMedicalData>> profileLookup =
+                        CompletableFuture.supplyAsync(() -> StudentDataFetcher.fetchStudentData(bitsId));
+
+                Optional<String> role = credentialManager.verifyCredentials(bitsId, password);
+                if (role.isEmpty() || !role.get().equals("Student") || isCancelled()) {
+                    profileLookup.cancel(true);
+                    return new LoginResult(role, Optional.empty());
+                }
+
+                publish("Loading medical profile...");
+                return new LoginResult(role, profileLookup.get());
+            }
+
+            @Override
+            protected void process(List<String> statuses) {
+                loginStatusLabel.setText(statuses.get(statuses.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                loginWorker = null;
+                setLoginInProgress(false);
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    completeLogin(bitsId, get());
+                } catch (InterruptedException | ExecutionException e) {
+                    JOptionPane.showMessageDialog(BPDCLoginFullScreen.this, "Login failed: " + e.getMessage(), "Login Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+
+        setLoginInProgress(true);
+        loginWorker.execute();
+    }
+
+    /**
+     * Cancels the login currently in progress, if any.
+     */
+    private void cancelLogin() {
+        if (loginWorker != null) {
+            loginWorker.cancel(true);
+        }
+    }
+
+    /**
+     * Toggles the progress state of the form while a login is running.
+     */
+    private void setLoginInProgress(boolean inProgress) {
+        continueButton.setEnabled(!inProgress);
+        continueButton.setText(inProgress ? "Logging in..." : "Login");
+        cancelLoginButton.setVisible(inProgress);
+        loginStatusLabel.setText(inProgress ? "Verifying credentials..." : " ");
+    }
 
-        if (verifiedRole.isPresent()) {
+    /**
+     * Finishes a login on the EDT once the background work is done.
+     * Demonstrates: Polymorphism (creating concrete subclass objects and passing them to the main app).
+     */
+    private void completeLogin(String bitsId, LoginResult result) {
+        if (result.role.isPresent()) {
             // Successful Login
-            String actualRole = verifiedRole.get();
+            String actualRole = result.role.get();
             ClinicUser user; // Declare user as the base abstract class type (Polymorphism)
             
             // Generate mock data for the user object
@@ -159,8 +266,15 @@ public class BPDCLoginFullScreen extends JPanel {
             
             if (actualRole.equals("Student")) {
                 // Instantiates Student object (Polymorphism)
-                // FIX: Added 5 placeholder "N/A" arguments to match the 9-argument constructor
-                user = new StudentDashboard.Student(bitsId, "Student User", email, "N/A", "N/A", "N/A", "N/A", "N/A", "N/A"); 
+                if (result.profile.isPresent()) {
+                    // Use the registered medical profile
+                    StudentMedicalData data = result.profile.get();
+                    user = new StudentDashboard.Student(bitsId, data.fullName, data.email, data.allergies, data.chronicIllnesses,
+                                                        data.getInsuranceType(), data.getBloodType(), data.mobileNo, data.studentTelegramId);
+                } else {
+                    // No registration on file: fall back to placeholders
+                    user = new StudentDashboard.Student(bitsId, "Student User", email, "N/A", "N/A", "N/A", "N/A", "N/A", "N/A"); 
+                }
                 
                 // We pass the concrete object. (Reverted back to passing object instead of String ID)
                 app.showStudentDashboard((StudentDashboard.Student)user); 
@@ -180,32 +294,74 @@ public class BPDCLoginFullScreen extends JPanel {
     }
     
     class ImageHeaderPanel extends JPanel {
+        // Full-resolution source, set once the background decode finishes
         private BufferedImage image;
+        // The source scaled to the current panel size, so a repaint is a plain copy
+        private BufferedImage scaledImage;
 
         public ImageHeaderPanel() {
-            try {
-                 // Using a placeholder image URL, as local files might not be accessible
-                File url = new File("C:\\Users\\vigne\\Documents\\BPDCCLinic\\frontend\\app\\image_1.png");
-                 image = ImageIO.read(url);
-
-            } catch (IOException ex) {
-                System.err.println("--- IMAGE LOAD ERROR ---");
-                System.err.println("Error: " + ex.getMessage());
-                
-                image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
-                Graphics2D g = image.createGraphics();
-                g.setColor(Color.LIGHT_GRAY); 
-                g.drawString("LOAD FAIL", 10, 50);
-                g.dispose();
-            }
+            // Decode the PNG off the EDT; the panel paints its background until it arrives
+            new SwingWorker<BufferedImage, Void>() {
+                @Override
+                protected BufferedImage doInBackground() throws IOException {
+                    // Using a placeholder image URL, as local files might not be accessible
+                    File url = new File("C:\\Users\\vigne\\Documents\\BPDCCLinic\\frontend\\app\\image_1.png");
+                    return ImageIO.read(url);
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        image = get();
+                    } catch (InterruptedException | ExecutionException ex) {
+                        System.err.println("--- IMAGE LOAD ERROR ---");
+                        System.err.println("Error: " + ex.getMessage());
+
+                        image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+                        Graphics2D g = image.createGraphics();
+                        g.setColor(Color.LIGHT_GRAY);
+                        g.drawString("LOAD FAIL", 10, 50);
+                        g.dispose();
+                    }
+                    scaledImage = null;
+                    repaint();
+                }
+            }.execute();
         }
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            if (image != null) {
-                g.drawImage(image, 0, 0, getWidth(), getHeight(), this);
+            BufferedImage scaled = getScaledImage();
+            if (scaled != null) {
+                g.drawImage(scaled, 0, 0, this);
+            }
+        }
+
+        /**
+         * Returns the image scaled to the panel, rescaling only when the panel size has changed.
+         */
+        private BufferedImage getScaledImage() {
+            int width = getWidth();
+            int height = getHeight();
+            if (image == null || width <= 0 || height <= 0) {
+                return null;
+            }
+            if (scaledImage == null || scaledImage.getWidth() != width || scaledImage.getHeight() != height) {
+                // Match the screen's pixel format so drawing it needs no conversion
+                GraphicsConfiguration gc = getGraphicsConfiguration();
+                int transparency = image.getColorModel().getTransparency();
+                scaledImage = gc != null
+                    ? gc.createCompatibleImage(width, height, transparency)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g2 = scaledImage.createGraphics();
+                // Scaling happens once per size, so it can afford the better filter
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g2.drawImage(image, 0, 0, width, height, null);
+                g2.dispose();
             }
+            return scaledImage;
         }
     }
 
@@ -15,6 +15,7 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import javax.swing.BorderFactory; 
@@ -27,6 +28,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPasswordField;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 import javax.swing.border.TitledBorder;
 
 import util.CredentialManager;
@@ -135,33 +137,37 @@ public class MedicalInfoForm extends JPanel {
         submitWrapper.add(submitButton);
         
         // Action listener to collect data, save to CSV, and redirect
+        // The write completes on the writer thread, so the result is handled back on the EDT
         submitButton.addActionListener(e -> {
-            boolean success = collectAndSaveData(); 
+            submitButton.setEnabled(false);
+            collectAndSaveData().thenAccept(success -> SwingUtilities.invokeLater(() -> {
+                submitButton.setEnabled(true);
             
-            if (success) {
-                // Collect key data to create the Student object for the session
-                String fullName = getFieldValue(fullNameField);
-                String bitsId = getFieldValue(bitsIdField);
-                String email = getFieldValue(bitsEmailField);
+                if (success) {
+                    // Collect key data to create the Student object for the session
+                    String fullName = getFieldValue(fullNameField);
+                    String bitsId = getFieldValue(bitsIdField);
+                    String email = getFieldValue(bitsEmailField);
                 
-                // FIX: Temporarily add placeholder N/A arguments to match the 9-argument constructor
-                StudentDashboard.Student student = new StudentDashboard.Student(
-                    bitsId, 
-                    fullName, 
-                    email, 
-                    "N/A", // Allergies
-                    "N/A", // Chronic Illnesses
-                    "N/A", // Insurance Type
-                    "N/A", // Blood Type
-                    getFieldValue(mobileNumberField), // Mobile No 
-                    getFieldValue(whatsappNumberField) // Telegram ID (mapped from WhatsApp field)
-                );
+                    // FIX: Temporarily add placeholder N/A arguments to match the 9-argument constructor
+                    StudentDashboard.Student student = new StudentDashboard.Student(
+                        bitsId, 
+                        fullName, 
+                        email, 
+                        "N/A", // Allergies
+                        "N/A", // Chronic Illnesses
+                        "N/A", // Insurance Type
+                        "N/A", // Blood Type
+                        getFieldValue(mobileNumberField), // Mobile No 
+                        getFieldValue(whatsappNumberField) // Telegram ID (mapped from WhatsApp field)
+                    );
                 
-                JOptionPane.showMessageDialog(this, "Registration data saved successfully to medical_registrations.csv!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    JOptionPane.showMessageDialog(this, "Registration data saved successfully to medical_registrations.csv!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 
-                // FIX: Pass the Student object to the app manager
-                app.showStudentDashboard(student); 
-            }
+                    // FIX: Pass the Student object to the app manager
+                    app.showStudentDashboard(student); 
+                }
+            }));
         }); 
         
         bottomPanel.add(submitWrapper, BorderLayout.EAST);
@@ -718,16 +724,16 @@ public class MedicalInfoForm extends JPanel {
 
     /**
      * Collects all data, registers the user credentials, and saves the medical data.
-     * @return true if both credential and medical data saving were successful, false otherwise.
+     * @return A future completed with true if both credential and medical data saving were successful, false otherwise.
      */
-    private boolean collectAndSaveData() {
+    private CompletableFuture<Boolean> collectAndSaveData() {
         // 1. Validate all mandatory fields first
         String validationError = validateMandatoryFields();
         
         if (validationError != null) {
             // Demonstrates Exception Handling / User Feedback
             JOptionPane.showMessageDialog(this, "Submission Failed: " + validationError, "Data Validation Error", JOptionPane.ERROR_MESSAGE);
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         // 2. Collect required credentials (BITS ID and Password)
@@ -739,7 +745,7 @@ public class MedicalInfoForm extends JPanel {
         boolean credsSaved = credentialManager.addCredential(bitsId, password, "Student");
         if (!credsSaved) {
              JOptionPane.showMessageDialog(this, "Failed to save login credentials. This BITS ID might already be registered.", "Registration Failed", JOptionPane.ERROR_MESSAGE);
-             return false;
+             return CompletableFuture.completedFuture(false);
         }
         
         // 4. Collect remaining medical and personal data
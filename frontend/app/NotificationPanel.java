@@ -0,0 +1,91 @@
+package app;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.AbstractListModel;
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+
+/**
+ * Scrollable list of received bot messages, newest at the bottom.
+ * Backed by a JList with a fixed cell height, so only the visible rows are ever laid out
+ * or painted, and each burst of messages is added with a single model event.
+ * Must be used on the EDT.
+ */
+public class NotificationPanel extends JPanel {
+
+    // Oldest messages are dropped beyond this
+    private static final int MAX_MESSAGES = 5000;
+
+    private static final Color DARK_BLUE = new Color(25, 55, 109);
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 18);
+    private static final Font MESSAGE_FONT = new Font("Arial", Font.PLAIN, 14);
+
+    /**
+     * List model holding the messages; appends fire one event per batch.
+     */
+    private static class MessageListModel extends AbstractListModel<String> {
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        public int getSize() {
+            return messages.size();
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            return messages.get(index);
+        }
+
+        void appendAll(List<String> batch) {
+            if (batch.isEmpty()) return;
+            int overflow = messages.size() + batch.size() - MAX_MESSAGES;
+            if (overflow > 0) {
+                int removed = Math.min(overflow, messages.size());
+                messages.subList(0, removed).clear();
+                if (removed > 0) fireIntervalRemoved(this, 0, removed - 1);
+            }
+            List<String> kept = batch.size() > MAX_MESSAGES ? batch.subList(batch.size() - MAX_MESSAGES, batch.size()) : batch;
+            int first = messages.size();
+            messages.addAll(kept);
+            fireIntervalAdded(this, first, messages.size() - 1);
+        }
+    }
+
+    private final MessageListModel model = new MessageListModel();
+    private final JList<String> list = new JList<>(model);
+
+    public NotificationPanel() {
+        setLayout(new BorderLayout(5, 5));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        setBackground(Color.WHITE);
+
+        JLabel title = new JLabel("Bot Messages");
+        title.setFont(TITLE_FONT);
+        title.setForeground(DARK_BLUE);
+        add(title, BorderLayout.NORTH);
+
+        list.setFont(MESSAGE_FONT);
+        // Fixed cell size: the list never has to measure every row
+        list.setPrototypeCellValue("New Bot Message Received: 0000-00-00 00:00:00 | 2024A7PS0000U | message text");
+        add(new JScrollPane(list), BorderLayout.CENTER);
+    }
+
+    /**
+     * Appends a batch of messages and scrolls to the newest one.
+     */
+    public void appendAll(List<String> messages) {
+        model.appendAll(messages);
+        int last = model.getSize() - 1;
+        if (last >= 0) {
+            list.ensureIndexIsVisible(last);
+        }
+    }
+}
@@ -308,19 +308,29 @@ public class StudentDashboard extends JPanel implements IClinicOperations {
                 JOptionPane.WARNING_MESSAGE);
 
         if (result == JOptionPane.YES_OPTION) {
-             // Retain the crucial logging/notification logic from the original file
-             if (EmergencyLogWriter.logAndNotifyEmergency(currentBitsId, currentFullName)) {
-                JOptionPane.showMessageDialog(this,
-                        "EMERGENCY ALERT SENT!\nClinic staff and wardens have been notified via Telegram for user: " + currentBitsId,
-                        "ALERT CONFIRMED",
-                        JOptionPane.ERROR_MESSAGE);
-            } else {
-                // Exception Handling feedback
-                JOptionPane.showMessageDialog(this,
-                        "EMERGENCY ALERT FAILED TO LOG OR NOTIFY! Please check file permissions/network.",
-                        "LOG/NOTIFY ERROR",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            // Retain the crucial logging/notification logic from the original file
+            // The event is queued immediately; the outcome is reported once it has been persisted
+            String bitsId = currentBitsId;
+            EmergencyLogWriter.logAndNotifyEmergency(bitsId, currentFullName)
+                .thenAccept(logged -> SwingUtilities.invokeLater(() -> showEmergencyResult(bitsId, logged)));
+        }
+    }
+
+    /**
+     * Shows the outcome of an emergency call once the pipeline has confirmed it.
+     */
+    private void showEmergencyResult(String bitsId, boolean logged) {
+        if (logged) {
+            JOptionPane.showMessageDialog(this,
+                    "EMERGENCY ALERT SENT!\nClinic staff and wardens have been notified via Telegram for user: " + bitsId,
+                    "ALERT CONFIRMED",
+                    JOptionPane.ERROR_MESSAGE);
+        } else {
+            // Exception Handling feedback
+            JOptionPane.showMessageDialog(this,
+                    "EMERGENCY ALERT FAILED TO LOG OR NOTIFY! Please check file permissions/network.",
+                    "LOG/NOTIFY ERROR",
+                    JOptionPane.ERROR_MESSAGE);
         }
     }
     
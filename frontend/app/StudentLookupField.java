@@ -0,0 +1,198 @@
+package app;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListModel;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import util.StudentDataFetcher;
+import util.StudentPrefixIndex;
+
+/**
+ * Search box that suggests students by name or BITS ID as you type.
+ * Lookups wait until typing pauses (bpdc.lookup.debounceMs) and run on a worker thread;
+ * a result that arrives after the text has changed again is dropped.
+ * Up/Down move through the suggestions, Enter or a click picks one, Escape closes them.
+ * Must be used on the EDT.
+ */
+public class StudentLookupField extends JPanel {
+
+    private static final int DEBOUNCE_MS = Integer.getInteger("bpdc.lookup.debounceMs", 150);
+    private static final int MAX_SUGGESTIONS = 10;
+
+    private static final Color DARK_BLUE = new Color(25, 55, 109);
+    private static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font FIELD_FONT = new Font("Arial", Font.PLAIN, 16);
+
+    private final JTextField queryField = new JTextField(18);
+    private final DefaultListModel<StudentPrefixIndex.Match> suggestions = new DefaultListModel<>();
+    private final JList<StudentPrefixIndex.Match> suggestionList = new JList<>(suggestions);
+    private final JPopupMenu popup = new JPopupMenu();
+    private final Timer debounceTimer;
+    private final Consumer<String> onSelect;
+    private int querySequence = 0; // Bumped on every edit; stale lookups are ignored
+
+    /**
+     * @param onSelect Called on the EDT with the BITS ID of the chosen student.
+     */
+    public StudentLookupField(Consumer<String> onSelect) {
+        super(new BorderLayout(10, 0));
+        this.onSelect = onSelect;
+        setOpaque(false);
+
+        JLabel label = new JLabel("Find student:");
+        label.setFont(LABEL_FONT);
+        label.setForeground(DARK_BLUE);
+        add(label, BorderLayout.WEST);
+
+        queryField.setFont(FIELD_FONT);
+        queryField.setToolTipText("Start typing a name or BITS ID");
+        add(queryField, BorderLayout.CENTER);
+
+        suggestionList.setFont(FIELD_FONT);
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.setFocusable(false);
+        JScrollPane scrollPane = new JScrollPane(suggestionList);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        popup.setFocusable(false); // Keep typing in the field while suggestions are shown
+        popup.add(scrollPane);
+
+        debounceTimer = new Timer(DEBOUNCE_MS, e -> runLookup());
+        debounceTimer.setRepeats(false);
+
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                textChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                textChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                textChanged();
+            }
+        });
+        queryField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                handleKey(e);
+            }
+        });
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = suggestionList.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    choose(suggestions.get(index));
+                }
+            }
+        });
+    }
+
+    private void textChanged() {
+        querySequence++;
+        debounceTimer.restart();
+    }
+
+    private void handleKey(KeyEvent e) {
+        int size = suggestions.size();
+        int selected = suggestionList.getSelectedIndex();
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_DOWN:
+                if (size > 0) suggestionList.setSelectedIndex(Math.min(selected + 1, size - 1));
+                e.consume();
+                break;
+            case KeyEvent.VK_UP:
+                if (size > 0) suggestionList.setSelectedIndex(Math.max(selected - 1, 0));
+                e.consume();
+                break;
+            case KeyEvent.VK_ENTER:
+                if (popup.isVisible() && size > 0) {
+                    choose(suggestions.get(Math.max(selected, 0)));
+                    e.consume();
+                }
+                break;
+            case KeyEvent.VK_ESCAPE:
+                popup.setVisible(false);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Looks up the current text on a worker thread once typing has paused.
+     */
+    private void runLookup() {
+        String prefix = queryField.getText();
+        int sequence = querySequence;
+        if (prefix.trim().isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+
+        new SwingWorker<List<StudentPrefixIndex.Match>, Void>() {
+            @Override
+            protected List<StudentPrefixIndex.Match> doInBackground() {
+                return StudentDataFetcher.suggestStudents(prefix, MAX_SUGGESTIONS);
+            }
+
+            @Override
+            protected void done() {
+                if (sequence != querySequence) {
+                    return; // The text changed while this lookup ran
+                }
+                try {
+                    showSuggestions(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Student Lookup Error: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void showSuggestions(List<StudentPrefixIndex.Match> matches) {
+        suggestions.clear();
+        suggestions.addAll(matches);
+        if (matches.isEmpty() || !queryField.isShowing()) {
+            popup.setVisible(false);
+            return;
+        }
+        suggestionList.setVisibleRowCount(Math.min(matches.size(), MAX_SUGGESTIONS));
+        suggestionList.setSelectedIndex(0);
+        popup.pack();
+        if (popup.getWidth() < queryField.getWidth()) {
+            popup.setPopupSize(queryField.getWidth(), popup.getHeight());
+        }
+        popup.show(queryField, 0, queryField.getHeight());
+    }
+
+    private void choose(StudentPrefixIndex.Match match) {
+        popup.setVisible(false);
+        onSelect.accept(match.bitsId);
+    }
+}
@@ -0,0 +1,384 @@
+package bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import util.CsvTokenizer;
+import util.EmergencyLogStore;
+
+/**
+ * Writes a synthetic campus for load and soak tests: credentials.csv, medical_registrations.csv
+ * and (optionally) a segmented emergency log, all consistent with each other.
+ * Every value is derived from (seed, row number) alone, so the same arguments always produce
+ * byte-identical files, any row can be recomputed without reading them (see bitsId, password,
+ * registration), and rows are streamed straight to disk: memory use does not grow with the
+ * number of rows, so tens of millions are fine.
+ * The data looks like real input: BITS IDs across seven intakes and sixteen programs (Dubai
+ * campus first), gender-consistent names, blood types in rough population proportions
+ * (sometimes typed as "B+ve" or "O Negative"), and free-text allergies with commas and quotes.
+ * Emergency presses go into daily segment files in the EmergencyLogStore line format and zone
+ * (EmergencyLogStore.LOG_ZONE); the store seals (and later compresses) them the first time the
+ * app opens the directory.
+ * Usage: java bench.DatasetGenerator [rows] [directory] [seed] [emergencyPresses] [days]
+ */
+public final class DatasetGenerator {
+
+    public static final long DEFAULT_SEED = 42;
+    public static final String CREDENTIALS_FILE = "credentials.csv";
+    public static final String REGISTRATIONS_FILE = "medical_registrations.csv";
+    public static final String EMERGENCY_LOG_DIRECTORY = "emergency_logs";
+
+    // Same headers as CredentialManager and MedicalDataWriter write for a new file
+    private static final String CREDENTIALS_HEADER = "Username,Password,Role";
+    private static final String REGISTRATIONS_HEADER =
+        "FullName,BITS_ID,Gender,BITS_Email,MobileNo,TelegramNo,BloodType,Allergies,ChronicIllnesses,InsuranceType";
+    private static final int WRITE_BUFFER = 1 << 20;
+
+    // BITS IDs: rows cycle through intake years, then programs, then serials, then campuses;
+    // past INTAKES * PROGRAMS * SERIALS * CAMPUSES rows (4.48 million) the intakes move further back
+    private static final int LATEST_INTAKE = 2025;
+    private static final int INTAKES = 7;
+    private static final String[] PROGRAMS = {
+        "A7PS", "A3PS", "A4PS", "A8PS", "AAPS", "A1PS", "A2PS", "A5PS",
+        "B1A7", "B2A3", "B3A7", "B3A4", "B4A7", "B5A7", "B5A3", "B1AA"
+    };
+    private static final int SERIALS = 10_000;
+    private static final String[] CAMPUSES = { "U", "P", "G", "H" };
+    private static final String[] EMAIL_DOMAINS = {
+        "dubai.bits-pilani.ac.in", "pilani.bits-pilani.ac.in", "goa.bits-pilani.ac.in", "hyderabad.bits-pilani.ac.in"
+    };
+    private static final long ID_CAPACITY = (long) (LATEST_INTAKE - 1000) / INTAKES * INTAKES * PROGRAMS.length * SERIALS * CAMPUSES.length;
+
+    private static final String[] MALE_NAMES = {
+        "Aarav", "Abdullah", "Adithya", "Ahmed", "Akash", "Ali", "Arjun", "Aryan", "Ayaan", "Dev", "Dhruv", "Faisal",
+        "Hamza", "Harsh", "Ibrahim", "Ishaan", "Karan", "Khalid", "Krishna", "Mohammed", "Nikhil", "Omar", "Pranav",
+        "Rahul", "Rohan", "Saif", "Sameer", "Siddharth", "Tariq", "Varun", "Vignesh", "Yash", "Yusuf", "Zaid"
+    };
+    private static final String[] FEMALE_NAMES = {
+        "Aaliyah", "Aditi", "Aisha", "Ananya", "Diya", "Fatima", "Hana", "Ishita", "Kavya", "Khadija", "Lakshmi",
+        "Layla", "Mariam", "Meera", "Nandini", "Noor", "Pooja", "Priya", "Riya", "Sana", "Sara", "Shreya", "Sneha",
+        "Tanvi", "Vaishnavi", "Yasmin", "Zainab", "Zara"
+    };
+    private static final String[] LAST_NAMES = {
+        "Abdullah", "Agarwal", "Ahmed", "Al Mansoori", "Ali", "Bhat", "Chowdhury", "D'Souza", "Das", "Fernandes",
+        "Gupta", "Hassan", "Iyer", "Jain", "Joseph", "Khan", "Krishnan", "Kumar", "Malik", "Menon", "Mehta", "Nair",
+        "Patel", "Pillai", "Qureshi", "Radhakrishnan", "Rao", "Reddy", "Rizvi", "Saxena", "Shah", "Sharma", "Siddiqui",
+        "Singh", "Thomas", "Varghese", "Verma"
+    };
+    private static final int MIDDLE_NAME_PERCENT = 15;
+
+    // Blood types in rough proportions for the student population (per mille, summing to 1000)
+    private static final String[] BLOOD_TYPES = { "O+", "A+", "B+", "AB+", "O-", "A-", "B-", "AB-" };
+    private static final int[] BLOOD_TYPE_PER_MILLE = { 360, 250, 240, 60, 40, 30, 15, 5 };
+    private static final String[] RH_WORDS = { "Positive", "Negative" };
+    private static final int BLOOD_TYPE_VARIANT_PERCENT = 12;
+
+    private static final int ALLERGY_PERCENT = 30;
+    private static final String[] ALLERGENS = {
+        "Penicillin", "Amoxicillin", "Sulfa drugs", "Aspirin", "Ibuprofen", "Peanuts", "Tree nuts", "Shellfish",
+        "Eggs", "Milk", "Gluten", "Soy", "Dust mites", "Pollen", "Cat dander", "Latex", "Bee stings"
+    };
+    private static final String[] ALLERGY_NOTES = {
+        " (severe, carries EpiPen)", " (mild rash)", " (hives, swelling)", ", \"maybe\" others - not tested"
+    };
+    private static final int ILLNESS_PERCENT = 12;
+    private static final String[] ILLNESSES = {
+        "Asthma", "Type 1 diabetes", "Hypothyroidism", "Epilepsy", "Migraine", "Eczema", "PCOS",
+        "G6PD deficiency", "Sickle cell trait", "Hypertension", "IBS"
+    };
+    private static final String[] ILLNESS_NOTES = {
+        ", uses inhaler", ", on insulin pump", " (controlled, daily medication)", ", \"mild\" per last check-up"
+    };
+
+    private static final char[] MOBILE_PREFIXES = { '0', '2', '4', '5', '6', '8' }; // UAE mobile 05x codes
+
+    private static final String[] INSURANCE_TYPES = { "Institute Insurance", "Personal/External Insurance" };
+    private static final int EXTERNAL_INSURANCE_PERCENT = 22;
+
+    // Staff accounts: one nurse per NURSE_RATIO students and one admin per ADMIN_RATIO (at least one each)
+    private static final int NURSE_RATIO = 2000;
+    private static final int ADMIN_RATIO = 20_000;
+    private static final int MAX_STAFF = 999;
+
+    // Emergency log: entry types and line format as written by EmergencyLogWriter and EmergencyLogStore
+    private static final String OPEN_ENTRY_TYPE = "emergencycall_1";
+    private static final String REPEAT_ENTRY_TYPE = "emergencycall_1_repeat";
+    private static final String ESCALATED_ENTRY_TYPE = "emergencycall_1_escalated";
+    private static final int ESCALATE_AFTER = 3;
+    private static final int REPEAT_PERCENT = 15;
+    private static final int MAX_PRESSES_PER_INCIDENT = 5;
+    private static final LocalDate LOG_START = LocalDate.of(2025, 1, 1);
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    // The store's zone (not the machine's), so the files land in the segments the store expects
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(EmergencyLogStore.LOG_ZONE);
+    private static final DateTimeFormatter SEGMENT_NAME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyyMMdd").withZone(EmergencyLogStore.LOG_ZONE);
+
+    private DatasetGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Path directory = Path.of(args.length > 1 ? args[1] : ".");
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        long presses = args.length > 3 ? Long.parseLong(args[3]) : rows / 100;
+        int days = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+
+        long start = System.nanoTime();
+        generate(directory, rows, seed, presses, days);
+        System.out.printf("Wrote %,d students and %,d emergency presses over %d days to %s in %.1f s%n",
+                rows, presses, days, directory.toAbsolutePath(), (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Writes credentials and registrations only (no emergency log).
+     */
+    public static void generate(Path directory, int rows, long seed) throws IOException {
+        generate(directory, rows, seed, 0, 0);
+    }
+
+    /**
+     * Writes the dataset into the directory (created if missing), replacing existing files.
+     * @param presses Emergency presses to log (0 = no emergency log).
+     * @param days Days from LOG_START the presses are spread over, one segment file per day.
+     * @throws IllegalArgumentException if rows is negative or too large for distinct BITS IDs.
+     */
+    public static void generate(Path directory, int rows, long seed, long presses, int days) throws IOException {
+        if (rows < 0 || rows > ID_CAPACITY) {
+            throw new IllegalArgumentException("rows must be between 0 and " + ID_CAPACITY + ": " + rows);
+        }
+        Files.createDirectories(directory);
+        writeCredentials(directory.resolve(CREDENTIALS_FILE), rows, seed);
+        writeRegistrations(directory.resolve(REGISTRATIONS_FILE), rows, seed);
+        if (presses > 0 && rows > 0 && days > 0) {
+            writeEmergencyLog(directory.resolve(EMERGENCY_LOG_DIRECTORY), rows, seed, presses, days);
+        }
+    }
+
+    /**
+     * @return The BITS ID of a row, e.g. 2025A7PS0000U; distinct for every row.
+     */
+    public static String bitsId(int row) {
+        int intake = row % INTAKES;
+        int rest = row / INTAKES;
+        String program = PROGRAMS[rest % PROGRAMS.length];
+        rest /= PROGRAMS.length;
+        int serial = rest % SERIALS;
+        rest /= SERIALS;
+        int campus = rest % CAMPUSES.length;
+        int year = LATEST_INTAKE - intake - INTAKES * (rest / CAMPUSES.length);
+        StringBuilder sb = new StringBuilder(13);
+        appendPadded(sb, year, 4).append(program);
+        return appendPadded(sb, serial, 4).append(CAMPUSES[campus]).toString();
+    }
+
+    /**
+     * @return The password stored for a student row (letters and digits, never a comma).
+     */
+    public static String password(long seed, int row) {
+        return Long.toString(mix(seed, row, 0), 36);
+    }
+
+    /**
+     * @return The registration columns of a row, in CSV column order.
+     */
+    public static String[] registration(long seed, int row) {
+        SplittableRandom random = new SplittableRandom(mix(seed, row, 1));
+        String bitsId = bitsId(row);
+        boolean male = random.nextBoolean();
+        String[] firstNames = male ? MALE_NAMES : FEMALE_NAMES;
+        String name = pick(firstNames, random);
+        if (random.nextInt(100) < MIDDLE_NAME_PERCENT) {
+            name += " " + pick(firstNames, random);
+        }
+        name += " " + pick(LAST_NAMES, random);
+
+        String mobile = mobileNumber(random);
+        String telegram = random.nextInt(100) < 70 ? mobile : mobileNumber(random);
+        int campus = row / (INTAKES * PROGRAMS.length * SERIALS) % CAMPUSES.length;
+
+        return new String[] {
+            name,
+            bitsId,
+            male ? "Male" : "Female",
+            "f" + bitsId.toLowerCase() + "@" + EMAIL_DOMAINS[campus],
+            mobile,
+            telegram,
+            bloodType(random),
+            random.nextInt(100) < ALLERGY_PERCENT ? freeText(ALLERGENS, ALLERGY_NOTES, random) : "N/A",
+            random.nextInt(100) < ILLNESS_PERCENT ? freeText(ILLNESSES, ILLNESS_NOTES, random) : "N/A",
+            INSURANCE_TYPES[random.nextInt(100) < EXTERNAL_INSURANCE_PERCENT ? 1 : 0]
+        };
+    }
+
+    // --- Files ---
+
+    private static void writeCredentials(Path file, int rows, long seed) throws IOException {
+        try (Writer out = newWriter(file)) {
+            out.write(CREDENTIALS_HEADER);
+            out.write('\n');
+            writeStaff(out, "NURSE", "Nurse", Math.min(MAX_STAFF, Math.max(1, rows / NURSE_RATIO)), seed, 0);
+            writeStaff(out, "ADMIN", "Admin", Math.min(MAX_STAFF, Math.max(1, rows / ADMIN_RATIO)), seed, MAX_STAFF);
+            StringBuilder line = new StringBuilder(64);
+            for (int row = 0; row < rows; row++) {
+                line.setLength(0);
+                line.append(bitsId(row)).append(',').append(password(seed, row)).append(",Student\n");
+                out.append(line);
+            }
+        }
+    }
+
+    /**
+     * Writes PREFIX_001 and up; their passwords come from negative rows, so they never repeat a student's.
+     */
+    private static void writeStaff(Writer out, String prefix, String role, int count, long seed, int rowOffset) throws IOException {
+        for (int i = 1; i <= count; i++) {
+            out.write(String.format("%s_%03d,%s,%s\n", prefix, i, password(seed, -(rowOffset + i)), role));
+        }
+    }
+
+    private static void writeRegistrations(Path file, int rows, long seed) throws IOException {
+        try (Writer out = newWriter(file)) {
+            out.write(REGISTRATIONS_HEADER);
+            out.write('\n');
+            StringBuilder line = new StringBuilder(256);
+            for (int row = 0; row < rows; row++) {
+                line.setLength(0);
+                CsvTokenizer.appendRecord(line, registration(seed, row));
+                line.append('\n');
+                out.append(line);
+            }
+        }
+    }
+
+    /**
+     * Spreads the presses evenly over the days as incidents: usually a single press, sometimes
+     * a burst of repeats by the same student a few seconds apart (the press that reaches
+     * ESCALATE_AFTER is logged as escalated). Lines are in time order, so only one segment
+     * file is open at a time.
+     */
+    private static void writeEmergencyLog(Path directory, int rows, long seed, long presses, int days) throws IOException {
+        Files.createDirectories(directory);
+        long start = LOG_START.atStartOfDay(EmergencyLogStore.LOG_ZONE).toInstant().toEpochMilli();
+        long span = days * DAY_MILLIS;
+        SplittableRandom random = new SplittableRandom(mix(seed, -1, 2));
+        // Expected incident count (a burst averages (2 + MAX) / 2 presses), so incidents are evenly spaced
+        long incidents = Math.max(1, presses * 200 / (200 + REPEAT_PERCENT * MAX_PRESSES_PER_INCIDENT));
+        long slot = Math.max(1, span / incidents);
+
+        Writer out = null;
+        long openDay = -1;
+        StringBuilder line = new StringBuilder(80);
+        try {
+            long written = 0;
+            for (long incident = 0; written < presses; incident++) {
+                long slotStart = start + Math.min(incident * slot, span - 1);
+                int caller = random.nextInt(rows);
+                int count = random.nextInt(100) < REPEAT_PERCENT ? 2 + random.nextInt(MAX_PRESSES_PER_INCIDENT - 1) : 1;
+                long gap = slot / (count + 1);
+                long time = Math.min(slotStart + random.nextLong(Math.max(1, gap)), start + span - 1);
+                for (int press = 1; press <= count && written < presses; press++, written++) {
+                    long day = Math.floorDiv(time, DAY_MILLIS);
+                    if (day != openDay) {
+                        if (out != null) out.close();
+                        out = newWriter(directory.resolve("emergency-" + SEGMENT_NAME_FORMAT.format(Instant.ofEpochMilli(day * DAY_MILLIS)) + ".log"));
+                        openDay = day;
+                    }
+                    String type = press == 1 ? OPEN_ENTRY_TYPE : press == ESCALATE_AFTER ? ESCALATED_ENTRY_TYPE : REPEAT_ENTRY_TYPE;
+                    line.setLength(0);
+                    line.append(TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(time)))
+                        .append(" | ").append(bitsId(caller))
+                        .append(" | ").append(type)
+                        .append(" | ").append(time)
+                        .append('\n');
+                    out.append(line);
+                    time = Math.min(time + Math.min(gap, 1000 + random.nextInt(30_000)), start + span - 1);
+                }
+            }
+        } finally {
+            if (out != null) out.close();
+        }
+    }
+
+    private static Writer newWriter(Path file) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), WRITE_BUFFER);
+    }
+
+    // --- Values ---
+
+    private static String mobileNumber(SplittableRandom random) {
+        StringBuilder sb = new StringBuilder(14).append("+971 5").append(MOBILE_PREFIXES[random.nextInt(MOBILE_PREFIXES.length)]);
+        return appendPadded(sb, random.nextInt(10_000_000), 7).toString();
+    }
+
+    private static String bloodType(SplittableRandom random) {
+        int roll = random.nextInt(1000);
+        int type = 0;
+        while (roll >= BLOOD_TYPE_PER_MILLE[type]) {
+            roll -= BLOOD_TYPE_PER_MILLE[type];
+            type++;
+        }
+        String bloodType = BLOOD_TYPES[type];
+        if (random.nextInt(100) >= BLOOD_TYPE_VARIANT_PERCENT) {
+            return bloodType;
+        }
+        // Typed the way students write it: "B+ve" or "O Negative"
+        String group = bloodType.substring(0, bloodType.length() - 1);
+        boolean positive = bloodType.endsWith("+");
+        return random.nextBoolean()
+            ? group + (positive ? "+ve" : "-ve")
+            : group + " " + RH_WORDS[positive ? 0 : 1];
+    }
+
+    /**
+     * One to three distinct entries joined with ", ", sometimes with a note on the last one.
+     */
+    private static String freeText(String[] entries, String[] notes, SplittableRandom random) {
+        int count = 1 + random.nextInt(3);
+        int first = random.nextInt(entries.length);
+        int step = 1 + random.nextInt(entries.length - 1); // The lists have prime lengths, so entries never repeat
+        StringBuilder sb = new StringBuilder(48);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(entries[(first + i * step) % entries.length]);
+        }
+        if (random.nextInt(4) == 0) {
+            sb.append(notes[random.nextInt(notes.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends a non-negative number zero-padded to the given width (cheaper than String.format per row).
+     */
+    private static StringBuilder appendPadded(StringBuilder sb, int value, int width) {
+        for (int digits = value == 0 ? 1 : (int) Math.log10(value) + 1; digits < width; digits++) {
+            sb.append('0');
+        }
+        return sb.append(value);
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Stateless pseudo-random value for (seed, row, stream) (SplitMix64 finalizer).
+     */
+    private static long mix(long seed, long row, int stream) {
+        long z = seed * 0x9E3779B97F4A7C15L + row * 0xBF58476D1CE4E5B9L + stream * 0x94D049BB133111EBL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) & Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,84 @@
+package bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import util.BitsId;
+import util.LongLongHashMap;
+
+/**
+ * Heap bytes per entry of the BITS_ID -> offset index: LongLongHashMap against
+ * the JDK HashMap<Long, Long> it replaced, filled with the same packed student IDs.
+ * Measured as the retained heap growth after a forced GC, so run it with a fixed heap
+ * and nothing else going on, e.g.: java -Xms1g -Xmx1g bench.IndexFootprintReport [entries]
+ */
+public class IndexFootprintReport {
+
+    private static final String[] PROGRAMS = { "A7PS", "A3PS", "B3A7", "A4PS", "A8PS", "AAPS" };
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long[] keys = generateKeys(entries);
+        System.out.printf("%,d entries%n", entries);
+
+        long before = usedHeap();
+        Map<Long, Long> boxed = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            boxed.put(keys[i], (long) i * 180);
+        }
+        long boxedBytes = usedHeap() - before;
+        report("HashMap<Long, Long>", boxedBytes, boxed.size());
+        // Check the map was not collected before it was measured
+        if (boxed.get(keys[keys.length / 2]) == null) throw new IllegalStateException();
+        boxed = null;
+
+        before = usedHeap();
+        LongLongHashMap primitive = new LongLongHashMap(16, -1L);
+        for (int i = 0; i < keys.length; i++) {
+            primitive.put(keys[i], (long) i * 180);
+        }
+        long primitiveBytes = usedHeap() - before;
+        report("LongLongHashMap", primitiveBytes, primitive.size());
+        System.out.printf("  (capacity %,d slots)%n", primitive.capacity());
+        if (primitive.get(keys[keys.length / 2]) < 0) throw new IllegalStateException();
+
+        System.out.printf("LongLongHashMap uses %.1fx less heap%n", boxedBytes / (double) primitiveBytes);
+    }
+
+    /**
+     * Distinct packed student IDs spread over years, programs and campuses.
+     */
+    private static long[] generateKeys(int count) {
+        Random random = new Random(42);
+        long[] keys = new long[count];
+        int i = 0;
+        for (int year = 2000; i < count; year++) {
+            for (String program : PROGRAMS) {
+                for (int serial = 0; serial < 10_000 && i < count; serial++) {
+                    char campus = "UPGH".charAt(random.nextInt(4));
+                    keys[i++] = BitsId.pack(String.format("%d%s%04d%c", year, program, serial, campus));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static void report(String name, long bytes, int size) {
+        System.out.printf("%-20s %,12d bytes  %6.1f bytes/entry%n", name, bytes, bytes / (double) size);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
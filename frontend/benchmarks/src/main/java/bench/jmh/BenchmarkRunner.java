@@ -0,0 +1,30 @@
+package bench.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar: the standard JMH command line, with the GC profiler always
+ * on so every result also reports allocation rate and bytes allocated per operation.
+ * Usage: java -jar frontend/benchmarks/target/benchmarks.jar [JMH options] [benchmark regex]
+ * e.g. java -jar benchmarks.jar Login -p rows=100000 -prof stack
+ * Datasets are generated on first use under java.io.tmpdir/bpdc-bench (see Datasets).
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
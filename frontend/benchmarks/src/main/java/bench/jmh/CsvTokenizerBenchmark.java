@@ -0,0 +1,65 @@
+package bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import bench.DatasetGenerator;
+import util.CsvTokenizer;
+
+/**
+ * Per-row cost of CsvTokenizer against the old split(",") + replace("\"", "") path, on
+ * generated medical_registrations.csv rows (quoted fields, with commas and quotes in the notes).
+ * Every field is handed to a Blackhole so neither path can be optimized away.
+ * Setup prints how many of the rows the split path mis-tokenizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvTokenizerBenchmark {
+
+    private final String[] lines = new String[Samples.SIZE];
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void generateRows() {
+        int misParsed = 0;
+        for (int i = 0; i < Samples.SIZE; i++) {
+            lines[i] = CsvTokenizer.formatRecord(DatasetGenerator.registration(DatasetGenerator.DEFAULT_SEED, i));
+            if (lines[i].split(",").length != tokenizer.tokenize(lines[i])) {
+                misParsed++;
+            }
+        }
+        System.out.printf("%nsplit(\",\") mis-tokenizes %d of %d rows%n", misParsed, Samples.SIZE);
+    }
+
+    @Benchmark
+    public void split(Blackhole blackhole) {
+        for (String part : lines[next++ & Samples.MASK].split(",")) {
+            blackhole.consume(part.replace("\"", "").trim());
+        }
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) {
+        int count = tokenizer.tokenize(lines[next++ & Samples.MASK]);
+        for (int i = 0; i < count; i++) {
+            blackhole.consume(tokenizer.field(i).trim());
+        }
+    }
+}
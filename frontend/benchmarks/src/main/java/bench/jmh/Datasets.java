@@ -0,0 +1,80 @@
+package bench.jmh;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import bench.DatasetGenerator;
+import util.StudentDataFetcher;
+
+/**
+ * Locates (and generates on first use) the dataset for a benchmark and points the app at it
+ * through the bpdc.* path properties. The util classes read those properties once, when they
+ * are initialized, so prepare() must run in @Setup before the benchmark touches any of them;
+ * each JMH fork is a fresh JVM, so every @Param value gets its own files.
+ * The registration snapshot is written here too: without one, the first lookup starts a rebuild
+ * on a background thread that would compete with the measurement, and the first run of a
+ * benchmark would measure something different from the runs after it.
+ */
+final class Datasets {
+
+    private static final Path ROOT = Path.of(System.getProperty("java.io.tmpdir"), "bpdc-bench");
+    private static final String COMPLETE_MARKER = ".complete";
+
+    private Datasets() {
+    }
+
+    /**
+     * Read-only dataset of the given size, shared between runs.
+     */
+    static Path prepare(int rows) {
+        return prepare(rows, null);
+    }
+
+    /**
+     * @param scratchName If not null, the benchmark writes to its files, so it gets a private copy
+     *                    (and an empty emergency log) under this name, recreated on every call.
+     */
+    static Path prepare(int rows, String scratchName) {
+        try {
+            Path shared = ROOT.resolve("rows-" + rows);
+            if (!Files.exists(shared.resolve(COMPLETE_MARKER))) {
+                DatasetGenerator.generate(shared, rows, DatasetGenerator.DEFAULT_SEED);
+                Files.createFile(shared.resolve(COMPLETE_MARKER));
+            }
+
+            Path directory = shared;
+            if (scratchName != null) {
+                directory = ROOT.resolve("rows-" + rows + "-" + scratchName);
+                deleteRecursively(directory);
+                Files.createDirectories(directory);
+                for (String file : new String[] { DatasetGenerator.CREDENTIALS_FILE, DatasetGenerator.REGISTRATIONS_FILE }) {
+                    Files.copy(shared.resolve(file), directory.resolve(file), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+
+            System.setProperty("bpdc.credentials.file", directory.resolve(DatasetGenerator.CREDENTIALS_FILE).toString());
+            System.setProperty("bpdc.registrations.file", directory.resolve(DatasetGenerator.REGISTRATIONS_FILE).toString());
+            System.setProperty("bpdc.registrations.snapshot", directory.resolve("medical_registrations.snapshot").toString());
+            System.setProperty("bpdc.emergencyLog.dir", directory.resolve("emergency_logs").toString());
+            System.setProperty("bpdc.notifications.outbox", directory.resolve("notification_outbox.csv").toString());
+            StudentDataFetcher.prepareSnapshot();
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare the " + rows + "-row dataset", e);
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (var paths = Files.walk(path)) {
+            for (Path p : (Iterable<Path>) paths.sorted((a, b) -> b.compareTo(a))::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+}
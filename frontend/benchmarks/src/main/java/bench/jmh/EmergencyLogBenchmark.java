@@ -0,0 +1,94 @@
+package bench.jmh;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bench.DatasetGenerator;
+import util.EmergencyLogWriter;
+
+/**
+ * EmergencyLogWriter.logAndNotifyEmergency, waiting until each event is durably logged.
+ * The rate limiter decides how a press is handled, so each path is measured on its own:
+ * "open" presses always start a new incident (logged and notified), "repeat" presses always
+ * fall into an open, already escalated incident (logged only). rows is the size of the dataset
+ * the callers are drawn from; it does not change which path is taken.
+ * The mock Telegram notifier prints every alert, so stdout is discarded during the trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmergencyLogBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int rows;
+
+    @Param({ "open", "repeat" })
+    String path;
+
+    private PrintStream stdout;
+    private int[] callers;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void emptyLog() throws Exception {
+        Datasets.prepare(rows, "emergency");
+        boolean open = "open".equals(path);
+        if (open) {
+            // Callers cycle through every row, so with no window a caller's last incident has always closed
+            System.setProperty("bpdc.emergency.incidentWindowMs", "0");
+            callers = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                callers[i] = i;
+            }
+        } else {
+            // Longer than the trial, so the incidents opened below stay open and escalate only once
+            System.setProperty("bpdc.emergency.incidentWindowMs", String.valueOf(TimeUnit.HOURS.toMillis(1)));
+            callers = Samples.rows(rows);
+        }
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        if (!open) {
+            // Open and escalate every caller's incident (escalateAfter presses) before measuring
+            List<CompletableFuture<Boolean>> pending = new ArrayList<>();
+            for (int press = 0; press < Integer.getInteger("bpdc.emergency.escalateAfter", 3); press++) {
+                for (int row : callers) {
+                    pending.add(EmergencyLogWriter.logAndNotifyEmergency(DatasetGenerator.bitsId(row), "Benchmark Student"));
+                }
+            }
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreOutput() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public boolean press() throws Exception {
+        int i = next;
+        next = i + 1 == callers.length ? 0 : i + 1;
+        return EmergencyLogWriter.logAndNotifyEmergency(DatasetGenerator.bitsId(callers[i]), "Benchmark Student").get();
+    }
+}
@@ -0,0 +1,65 @@
+package bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bench.DatasetGenerator;
+import util.CredentialManager;
+
+/**
+ * CredentialManager.verifyCredentials against credentials.csv files of increasing size,
+ * for a correct password and for a wrong one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int rows;
+
+    private CredentialManager credentials;
+    private final String[] usernames = new String[Samples.SIZE];
+    private final String[] passwords = new String[Samples.SIZE];
+    private final String[] wrongPasswords = new String[Samples.SIZE];
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void loadCredentials() {
+        Datasets.prepare(rows);
+        credentials = new CredentialManager();
+        int[] sample = Samples.rows(rows);
+        for (int i = 0; i < Samples.SIZE; i++) {
+            usernames[i] = DatasetGenerator.bitsId(sample[i]);
+            passwords[i] = DatasetGenerator.password(DatasetGenerator.DEFAULT_SEED, sample[i]);
+            wrongPasswords[i] = "not-" + passwords[i];
+        }
+    }
+
+    @Benchmark
+    public Object validLogin() {
+        int i = next++ & Samples.MASK;
+        return credentials.verifyCredentials(usernames[i], passwords[i]);
+    }
+
+    @Benchmark
+    public Object wrongPassword() {
+        int i = next++ & Samples.MASK;
+        return credentials.verifyCredentials(usernames[i], wrongPasswords[i]);
+    }
+}
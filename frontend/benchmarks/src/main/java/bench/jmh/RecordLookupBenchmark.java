@@ -0,0 +1,63 @@
+package bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bench.DatasetGenerator;
+import util.StudentDataFetcher;
+
+/**
+ * StudentDataFetcher.fetchStudentData by BITS ID: spread over the whole file (mostly cache
+ * misses on the larger datasets) and for one student looked up over and over (cache hits).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordLookupBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int rows;
+
+    private final String[] bitsIds = new String[Samples.SIZE];
+    private String hotBitsId;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        Datasets.prepare(rows);
+        int[] sample = Samples.rows(rows);
+        for (int i = 0; i < Samples.SIZE; i++) {
+            bitsIds[i] = DatasetGenerator.bitsId(sample[i]);
+        }
+        hotBitsId = bitsIds[0];
+        // The first lookup builds the offset index; keep that out of the measurement
+        if (StudentDataFetcher.fetchStudentData(hotBitsId).isEmpty()) {
+            throw new IllegalStateException("Generated student " + hotBitsId + " not found");
+        }
+    }
+
+    @Benchmark
+    public Object randomStudent() {
+        return StudentDataFetcher.fetchStudentData(bitsIds[next++ & Samples.MASK]);
+    }
+
+    @Benchmark
+    public Object sameStudent() {
+        return StudentDataFetcher.fetchStudentData(hotBitsId);
+    }
+}
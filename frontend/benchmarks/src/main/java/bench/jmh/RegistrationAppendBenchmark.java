@@ -0,0 +1,72 @@
+package bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import bench.DatasetGenerator;
+import util.MedicalDataWriter;
+
+/**
+ * MedicalDataWriter.writeDataToCsv for new students, waiting for each row to reach the file,
+ * on top of an existing registrations file of the given size (a private copy per trial).
+ * register measures one append from a lone producer; the writer would otherwise hold every
+ * row for its whole group-commit window (bpdc.registrations.maxLatencyMs), so it is turned off
+ * there. registerConcurrently keeps the window and reports the group-commit throughput of
+ * several producers sharing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationAppendBenchmark {
+
+    private static final int PRODUCERS = 8;
+
+    @Param({ "1000", "100000", "1000000" })
+    int rows;
+
+    private final AtomicInteger nextRow = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void copyDataset(BenchmarkParams params) {
+        Datasets.prepare(rows, "append");
+        if (params.getThreads() == 1) {
+            System.setProperty("bpdc.registrations.maxLatencyMs", "0");
+        }
+        nextRow.set(rows); // Rows past the dataset are students not registered yet
+    }
+
+    @Benchmark
+    public boolean register() throws Exception {
+        return append();
+    }
+
+    @Benchmark
+    @Threads(PRODUCERS)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean registerConcurrently() throws Exception {
+        return append();
+    }
+
+    private boolean append() throws Exception {
+        return MedicalDataWriter.writeDataToCsv(DatasetGenerator.registration(DatasetGenerator.DEFAULT_SEED, nextRow.getAndIncrement())).get();
+    }
+}
@@ -0,0 +1,30 @@
+package bench.jmh;
+
+import java.util.SplittableRandom;
+
+import bench.DatasetGenerator;
+
+/**
+ * Fixed, seeded sample of rows that benchmarks cycle through, so the lookups hit the whole
+ * dataset without paying for a random number generator (or @Setup(Level.Invocation)) per call.
+ */
+final class Samples {
+
+    static final int SIZE = 4096;
+    static final int MASK = SIZE - 1;
+
+    private Samples() {
+    }
+
+    /**
+     * @return SIZE row numbers drawn uniformly from [0, rows).
+     */
+    static int[] rows(int rows) {
+        SplittableRandom random = new SplittableRandom(DatasetGenerator.DEFAULT_SEED);
+        int[] sample = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            sample[i] = random.nextInt(rows);
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,73 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BitsIdTest {
+
+    @Test
+    void studentIdRoundTripsThroughThePackedForm() {
+        for (String id : new String[] { "2024A7PS0255U", "2019B4AA0001D", "0000AAAA0000A", "9999ZZZZ9999Z" }) {
+            long key = BitsId.pack(id);
+            assertTrue(BitsId.of(id).isStudentId(), id);
+            assertTrue(BitsId.isPortable(key), id);
+            assertEquals(id, BitsId.unpack(key));
+        }
+        assertEquals(2024, BitsId.of("2024A7PS0255U").getYear());
+    }
+
+    @Test
+    void shortIdRoundTripsThroughThePackedForm() {
+        for (String id : new String[] { "NURSE_001", "ADMIN-1", "A", "DR.X@BPDC", "0123456789" }) {
+            long key = BitsId.pack(id);
+            assertFalse(BitsId.of(id).isStudentId(), id);
+            assertTrue(BitsId.isPortable(key), id);
+            assertEquals(id, BitsId.unpack(key));
+            assertEquals(-1, BitsId.of(id).getYear());
+        }
+    }
+
+    @Test
+    void otherIdsAreInternedForThisJvm() {
+        String id = "VISITING_PROFESSOR_" + System.nanoTime();
+        assertEquals(BitsId.NONE, BitsId.find(id));
+
+        long key = BitsId.pack(id);
+        assertFalse(BitsId.isPortable(key));
+        assertEquals(id, BitsId.unpack(key));
+        assertEquals(key, BitsId.pack(id));
+        assertEquals(key, BitsId.find(id));
+    }
+
+    @Test
+    void idsAreTrimmedAndCaseInsensitive() {
+        assertEquals(BitsId.pack("2024A7PS0255U"), BitsId.pack("  2024a7ps0255u\t"));
+        assertEquals(BitsId.pack("NURSE_001"), BitsId.find("nurse_001 "));
+        assertEquals("NURSE_001", BitsId.of(" nurse_001").toString());
+    }
+
+    @Test
+    void findNeverInternsAnUnknownId() {
+        String id = "NEVER_PACKED_" + System.nanoTime();
+        assertEquals(BitsId.NONE, BitsId.find(id));
+        assertEquals(BitsId.NONE, BitsId.find(id));
+    }
+
+    @Test
+    void distinctIdsGetDistinctKeys() {
+        assertNotEquals(BitsId.pack("2024A7PS0255U"), BitsId.pack("2024A7PS0256U"));
+        assertNotEquals(BitsId.pack("NURSE_001"), BitsId.pack("NURSE_01"));
+    }
+
+    @Test
+    void invalidKeysAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BitsId.unpack(-1L));
+        assertThrows(IllegalArgumentException.class, () -> BitsId.fromLong(2L << 62 | Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> BitsId.pack(null));
+    }
+}
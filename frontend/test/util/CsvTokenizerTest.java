@@ -0,0 +1,74 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+class CsvTokenizerTest {
+
+    @Test
+    void quotedFieldsKeepCommasAndUnescapeQuotes() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        assertEquals(4, tokenizer.tokenize("\"Doe, Jane\",\"Peanuts \"\"severe\"\"\",plain,\"\""));
+        assertArrayEquals(new String[] { "Doe, Jane", "Peanuts \"severe\"", "plain", "" }, tokenizer.toArray());
+    }
+
+    @Test
+    void emptyAndTrailingFieldsAreKept() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        assertEquals(4, tokenizer.tokenize("a,,b,"));
+        assertArrayEquals(new String[] { "a", "", "b", "" }, tokenizer.toArray());
+        assertEquals(1, tokenizer.tokenize(""));
+        assertEquals("", tokenizer.field(0));
+    }
+
+    @Test
+    void streamingReadsQuotedLineBreaksAsPartOfTheField() throws IOException {
+        String csv = "name,notes\r\n"
+            + "\"Jane\",\"line one\nline two\"\n"
+            + "\"Raj\",\"says \"\"hi\"\"\r\nthen leaves\"\r\n"
+            + "last,row";
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv));
+
+        assertTrue(tokenizer.nextRecord());
+        assertArrayEquals(new String[] { "name", "notes" }, tokenizer.toArray());
+        assertTrue(tokenizer.nextRecord());
+        assertArrayEquals(new String[] { "Jane", "line one\nline two" }, tokenizer.toArray());
+        assertTrue(tokenizer.nextRecord());
+        assertArrayEquals(new String[] { "Raj", "says \"hi\"\r\nthen leaves" }, tokenizer.toArray());
+        assertTrue(tokenizer.nextRecord());
+        assertArrayEquals(new String[] { "last", "row" }, tokenizer.toArray());
+        assertFalse(tokenizer.nextRecord());
+    }
+
+    @Test
+    void formattedRecordsTokenizeBackToTheSameValues() throws IOException {
+        String[] values = { "Doe, Jane", "He said \"no\"", "two\nlines", "", "\"\"" };
+        String line = CsvTokenizer.formatRecord(values);
+
+        CsvTokenizer single = new CsvTokenizer();
+        assertEquals(values.length, single.tokenize(line));
+        assertArrayEquals(values, single.toArray());
+
+        CsvTokenizer streaming = new CsvTokenizer(new StringReader(line + "\n" + line + "\n"));
+        for (int i = 0; i < 2; i++) {
+            assertTrue(streaming.nextRecord());
+            assertArrayEquals(values, streaming.toArray());
+        }
+        assertFalse(streaming.nextRecord());
+    }
+
+    @Test
+    void textAfterAClosingQuoteIsKeptLeniently() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        assertEquals(2, tokenizer.tokenize("\"B\"+ve,x"));
+        assertEquals("B+ve", tokenizer.field(0));
+        assertEquals("x", tokenizer.field(1));
+    }
+}
@@ -0,0 +1,38 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class EmergencyEventRingTest {
+
+    @Test
+    void consumerSurvivesAnErrorFromTheHandler() throws Exception {
+        AtomicBoolean failNext = new AtomicBoolean(true);
+        EmergencyEventRing ring = new EmergencyEventRing(16, 4, batch -> {
+            if (failNext.getAndSet(false)) {
+                throw new OutOfMemoryError("simulated");
+            }
+            for (EmergencyEventRing.Entry entry : batch) {
+                entry.durable.complete(true);
+            }
+        }, "EmergencyEventRingTest");
+
+        EmergencyEventRing.Entry first = entry();
+        assertTrue(ring.tryPublish(first));
+        assertFalse(first.durable.get(10, TimeUnit.SECONDS));
+
+        EmergencyEventRing.Entry second = entry();
+        assertTrue(ring.tryPublish(second));
+        assertTrue(second.durable.get(10, TimeUnit.SECONDS));
+    }
+
+    private static EmergencyEventRing.Entry entry() {
+        return new EmergencyEventRing.Entry(
+            new EmergencyEvent("2024A7PS0255U", "Test Student", EmergencyLogWriter.LOG_ENTRY_TYPE, System.currentTimeMillis()));
+    }
+}
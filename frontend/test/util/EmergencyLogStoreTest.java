@@ -0,0 +1,95 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import bench.DatasetGenerator;
+
+class EmergencyLogStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsEventsByBitsIdInAnyCase() throws IOException {
+        EmergencyLogStore store = new EmergencyLogStore(directory, false, 7, 0);
+        long now = System.currentTimeMillis();
+        store.append(List.of(
+            new EmergencyEvent("2024A7PS0255U", "A", EmergencyLogWriter.LOG_ENTRY_TYPE, now),
+            new EmergencyEvent("NURSE_001", "B", EmergencyLogWriter.LOG_ENTRY_TYPE, now + 1),
+            new EmergencyEvent("2024a7ps0255u", "A", EmergencyLogWriter.REPEAT_ENTRY_TYPE, now + 2)));
+
+        List<EmergencyEvent> found = store.findByBitsId(" 2024a7PS0255U");
+        assertEquals(2, found.size());
+        assertEquals(now, found.get(0).timestampMillis);
+        assertEquals(EmergencyLogWriter.REPEAT_ENTRY_TYPE, found.get(1).type);
+        assertEquals(1, store.findByBitsId("nurse_001").size());
+    }
+
+    @Test
+    void lookingUpAnUnknownIdDoesNotInternIt() throws IOException {
+        EmergencyLogStore store = new EmergencyLogStore(directory, false, 7, 0);
+        store.append(List.of(new EmergencyEvent("2024A7PS0255U", "A", EmergencyLogWriter.LOG_ENTRY_TYPE, System.currentTimeMillis())));
+
+        String unknown = "NOT_A_REAL_USER_" + System.nanoTime();
+        assertTrue(store.findByBitsId(unknown).isEmpty());
+        assertEquals(BitsId.NONE, BitsId.find(unknown));
+    }
+
+    @Test
+    void generatedSegmentsHoldExactlyTheEventsOfTheirWindow() throws IOException {
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Dubai")); // Not UTC: the machine's zone must not matter
+        try {
+            DatasetGenerator.generate(directory, 200, 3, 2000, 3);
+            Path logDirectory = directory.resolve(DatasetGenerator.EMERGENCY_LOG_DIRECTORY);
+            DateTimeFormatter timestamp =
+                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(EmergencyLogStore.LOG_ZONE);
+
+            // Read the generated files before the store seals them
+            List<Path> segments = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(logDirectory, "emergency-*.log")) {
+                files.forEach(segments::add);
+            }
+            assertEquals(3, segments.size());
+            long[] windows = new long[segments.size()];
+            int[] counts = new int[segments.size()];
+            for (int i = 0; i < segments.size(); i++) {
+                String name = segments.get(i).getFileName().toString();
+                windows[i] = LocalDate.parse(name.substring("emergency-".length(), name.length() - ".log".length()),
+                    DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay(EmergencyLogStore.LOG_ZONE).toInstant().toEpochMilli();
+                for (String line : Files.readAllLines(segments.get(i), StandardCharsets.UTF_8)) {
+                    String[] fields = line.split(" \\| ");
+                    long millis = Long.parseLong(fields[3]);
+                    assertEquals(timestamp.format(Instant.ofEpochMilli(millis)), fields[0]);
+                    counts[i]++;
+                }
+            }
+
+            EmergencyLogStore store = new EmergencyLogStore(logDirectory, false, 7, 0);
+            long day = TimeUnit.DAYS.toMillis(1);
+            for (int i = 0; i < segments.size(); i++) {
+                List<EmergencyEvent> found = store.findBetween(windows[i], windows[i] + day);
+                assertEquals(counts[i], found.size(), segments.get(i).getFileName().toString());
+            }
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+}
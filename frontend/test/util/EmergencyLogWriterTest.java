@@ -0,0 +1,57 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * EmergencyLogWriter reads its paths once, when it is initialized, so they are set up in
+ * @BeforeAll (surefire runs each test class in a fresh JVM).
+ */
+class EmergencyLogWriterTest {
+
+    @TempDir
+    static Path directory;
+
+    private static Path logDirectory;
+
+    @BeforeAll
+    static void pointAtTempFiles() {
+        logDirectory = directory.resolve("emergency_logs");
+        System.setProperty("bpdc.emergencyLog.dir", logDirectory.toString());
+        System.setProperty("bpdc.notifications.outbox", directory.resolve("notification_outbox.csv").toString());
+    }
+
+    @Test
+    void pressAfterAFailedFirstWriteStillAlerts() throws Exception {
+        String bitsId = "2024A7PS0255U";
+        BlockingQueue<EmergencyEvent> delivered = new LinkedBlockingQueue<>();
+        EmergencyLogWriter.addAcknowledgementListener(delivered::add);
+
+        // A file where the log directory should be: the first write fails
+        Files.createFile(logDirectory);
+        assertFalse(EmergencyLogWriter.logAndNotifyEmergency(bitsId, "Test Student").get(10, TimeUnit.SECONDS));
+
+        Files.delete(logDirectory);
+        assertTrue(EmergencyLogWriter.logAndNotifyEmergency(bitsId, "Test Student").get(10, TimeUnit.SECONDS));
+
+        // The failed press did not leave an incident open, so this one was an OPEN with an alert
+        List<EmergencyEvent> logged = EmergencyLogWriter.findEmergencies(bitsId);
+        assertEquals(1, logged.size());
+        assertEquals(EmergencyLogWriter.LOG_ENTRY_TYPE, logged.get(0).type);
+        EmergencyEvent alert = delivered.poll(10, TimeUnit.SECONDS);
+        assertEquals(bitsId, alert == null ? null : alert.bitsId);
+        assertEquals(0, EmergencyLogWriter.getSuppressedCount());
+    }
+}
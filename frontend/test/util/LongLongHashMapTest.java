@@ -0,0 +1,113 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class LongLongHashMapTest {
+
+    private static final long NO_VALUE = -1L;
+
+    @Test
+    void keyZeroIsStoredOutsideTheTable() {
+        LongLongHashMap map = new LongLongHashMap(4, NO_VALUE);
+        assertFalse(map.containsKey(0));
+        assertEquals(NO_VALUE, map.get(0));
+
+        assertEquals(NO_VALUE, map.put(0, 7));
+        assertTrue(map.containsKey(0));
+        assertEquals(7, map.get(0));
+        assertEquals(1, map.size());
+        assertFalse(map.putIfAbsent(0, 8));
+        assertEquals(7, map.put(0, 9));
+
+        map.put(5, 50);
+        assertEquals(2, map.size());
+        assertEquals(9, map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(NO_VALUE, map.remove(0));
+        assertEquals(50, map.get(5));
+        assertEquals(1, map.size());
+
+        map.put(0, 1);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    void removeShiftsBackAProbeRunThatWrapsAroundTheTable() {
+        LongLongHashMap map = new LongLongHashMap(4, NO_VALUE);
+        int capacity = map.capacity();
+        // Three keys that all want the last slot (so two wrap to slots 0 and 1), and one that wants slot 0
+        long[] last = keysWithHomeSlot(capacity - 1, capacity, 3);
+        long first = keysWithHomeSlot(0, capacity, 1)[0];
+        for (long key : last) {
+            map.put(key, key * 10);
+        }
+        map.put(first, first * 10);
+
+        assertEquals(last[0] * 10, map.remove(last[0]));
+        assertEquals(NO_VALUE, map.get(last[0]));
+        assertEquals(last[1] * 10, map.get(last[1]));
+        assertEquals(last[2] * 10, map.get(last[2]));
+        assertEquals(first * 10, map.get(first));
+
+        assertEquals(last[2] * 10, map.remove(last[2]));
+        assertEquals(last[1] * 10, map.get(last[1]));
+        assertEquals(first * 10, map.get(first));
+        assertEquals(2, map.size());
+        assertEquals(capacity, map.capacity());
+    }
+
+    @Test
+    void behavesLikeAHashMapUnderRandomPutsAndRemoves() {
+        LongLongHashMap map = new LongLongHashMap(16, NO_VALUE);
+        Map<Long, Long> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(2_000); // Small key space, so runs collide and get removed often
+            if (random.nextInt(3) == 0) {
+                Long previous = expected.remove(key);
+                assertEquals(previous == null ? NO_VALUE : previous, map.remove(key));
+            } else {
+                long value = random.nextLong(1_000_000);
+                Long previous = expected.put(key, value);
+                assertEquals(previous == null ? NO_VALUE : previous, map.put(key, value));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 2_000; key++) {
+            Long value = expected.get(key);
+            assertEquals(value == null ? NO_VALUE : value, map.get(key), "key " + key);
+            assertEquals(value != null, map.containsKey(key));
+        }
+    }
+
+    /**
+     * @return The first count non-zero keys whose home slot is the given slot
+     * (same mixing function as LongLongHashMap.slotOf).
+     */
+    private static long[] keysWithHomeSlot(int slot, int capacity, int count) {
+        long[] found = new long[count];
+        int n = 0;
+        for (long key = 1; n < count; key++) {
+            long h = key;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            if (((int) h & (capacity - 1)) == slot) {
+                found[n++] = key;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,63 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * MedicalDataWriter reads its paths once, when it is initialized, so they are set up in
+ * @BeforeAll (surefire runs each test class in a fresh JVM).
+ */
+class MedicalDataWriterTest {
+
+    @TempDir
+    static Path directory;
+
+    private static Path csv;
+
+    @BeforeAll
+    static void pointAtTempFiles() {
+        csv = directory.resolve("medical_registrations.csv");
+        System.setProperty("bpdc.registrations.file", csv.toString());
+        System.setProperty("bpdc.registrations.snapshot", directory.resolve("medical_registrations.snapshot").toString());
+    }
+
+    @Test
+    void rowsAreNotReportedWrittenAfterTheCsvIsDeletedOrReplaced() throws Exception {
+        assertTrue(write("2024A7PS0001U"));
+        assertEquals(2, Files.readAllLines(csv, StandardCharsets.UTF_8).size()); // Header and row
+
+        Files.delete(csv);
+        assertFalse(write("2024A7PS0002U"));
+        assertTrue(write("2024A7PS0003U"));
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("2024A7PS0003U"));
+
+        Path replacement = directory.resolve("replacement.csv");
+        Files.writeString(replacement, lines.get(0) + System.lineSeparator(), StandardCharsets.UTF_8);
+        Files.move(replacement, csv, StandardCopyOption.REPLACE_EXISTING);
+        assertFalse(write("2024A7PS0004U"));
+        assertTrue(write("2024A7PS0005U"));
+        lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("2024A7PS0005U"));
+    }
+
+    private static boolean write(String bitsId) throws Exception {
+        String[] row = { "Test Student", bitsId, "Female", "f" + bitsId + "@dubai.bits-pilani.ac.in",
+            "0500000000", "0500000000", "O+", "None", "None", "Basic" };
+        return MedicalDataWriter.writeDataToCsv(row).get(10, TimeUnit.SECONDS);
+    }
+}
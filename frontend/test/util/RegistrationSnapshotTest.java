@@ -0,0 +1,131 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import bench.DatasetGenerator;
+
+class RegistrationSnapshotTest {
+
+    // Enough rows that the CSV is larger than both checked blocks together
+    private static final int ROWS = 3000;
+    private static final long SEED = 7;
+
+    @TempDir
+    Path directory;
+
+    private Path csv;
+    private Path snapshot;
+
+    @BeforeEach
+    void writeSnapshot() throws IOException {
+        DatasetGenerator.generate(directory, ROWS, SEED);
+        csv = directory.resolve(DatasetGenerator.REGISTRATIONS_FILE);
+        snapshot = directory.resolve("medical_registrations.snapshot");
+        RegistrationSnapshot.write(csv, snapshot);
+    }
+
+    @Test
+    void snapshotHoldsEveryRowOfTheCsv() throws IOException {
+        RegistrationSnapshot loaded = RegistrationSnapshot.open(snapshot, csv);
+        assertNotNull(loaded);
+        assertEquals(ROWS, loaded.rowCount());
+        assertEquals(Files.size(csv), loaded.csvLength());
+        for (int row : new int[] { 0, 1, ROWS / 2, ROWS - 1 }) {
+            assertEquals(BitsId.pack(DatasetGenerator.bitsId(row)), loaded.bitsKey(row));
+            String[] expected = DatasetGenerator.registration(SEED, row);
+            assertArrayEquals(expected, Arrays.copyOf(loaded.record(row), expected.length));
+            assertEquals(CsvTokenizer.formatRecord(expected), readLineAt(loaded.csvOffset(row)));
+        }
+    }
+
+    @Test
+    void rowsAppendedAfterTheSnapshotDoNotInvalidateIt() throws IOException {
+        long length = Files.size(csv);
+        Files.writeString(csv, CsvTokenizer.formatRecord(DatasetGenerator.registration(SEED, ROWS)) + "\n",
+            StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        RegistrationSnapshot loaded = RegistrationSnapshot.open(snapshot, csv);
+        assertNotNull(loaded);
+        assertEquals(length, loaded.csvLength());
+        assertEquals(ROWS, loaded.rowCount());
+    }
+
+    @Test
+    void rejectedAfterTheCsvIsTruncated() throws IOException {
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+        assertNull(RegistrationSnapshot.open(snapshot, csv));
+    }
+
+    @Test
+    void rejectedAfterTheLastRowIsRewrittenInPlace() throws IOException {
+        long length = Files.size(csv);
+        rewriteAtSameLength(length - 5);
+        assertNull(RegistrationSnapshot.open(snapshot, csv));
+    }
+
+    @Test
+    void rejectedAfterTheFirstRowIsRewrittenInPlace() throws IOException {
+        rewriteAtSameLength(readLineAt(0).length() + 3);
+        assertNull(RegistrationSnapshot.open(snapshot, csv));
+    }
+
+    @Test
+    void rejectedAfterTheCsvIsReplacedAndGrows() throws IOException {
+        Files.delete(csv);
+        DatasetGenerator.generate(directory, ROWS * 2, SEED + 1);
+        assertNull(RegistrationSnapshot.open(snapshot, csv));
+    }
+
+    @Test
+    void rejectedWhenTheSnapshotItselfIsCorrupted() throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            long position = channel.size() / 2;
+            channel.read(one, position);
+            one.put(0, (byte) (one.get(0) ^ 1)).rewind();
+            channel.write(one, position);
+        }
+        assertNull(RegistrationSnapshot.open(snapshot, csv));
+    }
+
+    /**
+     * Changes one character of the CSV without changing its length or modification time,
+     * so only the checksums can tell.
+     */
+    private void rewriteAtSameLength(long position) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(csv);
+        byte[] bytes = Files.readAllBytes(csv);
+        int at = (int) position;
+        bytes[at] = (byte) (bytes[at] == 'X' ? 'Y' : 'X');
+        Files.write(csv, bytes);
+        Files.setLastModifiedTime(csv, modified);
+    }
+
+    private String readLineAt(long offset) throws IOException {
+        byte[] bytes = Files.readAllBytes(csv);
+        int end = (int) offset;
+        while (bytes[end] != '\n') {
+            end++;
+        }
+        return new String(bytes, (int) offset, end - (int) offset, StandardCharsets.UTF_8);
+    }
+}
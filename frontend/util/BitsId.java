@@ -0,0 +1,271 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A user ID packed into a single long, so indexes can key on a primitive instead of a String.
+ * IDs are case-insensitive: they are trimmed and upper-cased first, and toString() returns that form.
+ *
+ * Layout (top two bits are the tag):
+ *   00 - student ID like 2024A7PS0255U: year (14 bits), 4 program characters (6 bits each),
+ *        serial (14 bits) and campus letter (6 bits).
+ *   01 - short ID like NURSE_001: up to 10 characters from a 41-symbol alphabet, 6 bits each.
+ *   10 - anything else: the index of the ID in an in-memory table (valid for this JVM only).
+ * Every form unpacks back to exactly the normalized ID.
+ */
+public final class BitsId implements Comparable<BitsId> {
+
+    /** Returned by find() for an ID that has never been packed; never a valid key. */
+    public static final long NONE = -1L;
+
+    private static final long TAG_MASK = 3L << 62;
+    private static final long TAG_STUDENT = 0L;
+    private static final long TAG_SHORT = 1L << 62;
+    private static final long TAG_INTERNED = 2L << 62;
+
+    private static final int STUDENT_ID_LENGTH = 13;
+    // Symbols for the program and campus codes (value = position)
+    private static final String CODE_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    // Symbols for short IDs (value = position + 1, so 0 marks the end)
+    private static final String SHORT_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ_-.@ ";
+    private static final int SHORT_MAX_LENGTH = 10;
+
+    // IDs that fit neither packed form
+    private static final Map<String, Long> internedKeys = new HashMap<>();
+    private static final List<String> internedIds = new ArrayList<>();
+
+    private final long value;
+
+    private BitsId(long value) {
+        this.value = value;
+    }
+
+    /**
+     * @param id A raw ID (surrounding spaces and case are ignored).
+     * @return The packed ID.
+     */
+    public static BitsId of(String id) {
+        return new BitsId(pack(id));
+    }
+
+    /**
+     * @param value A key returned by pack() or toLong().
+     * @return The ID it stands for.
+     * @throws IllegalArgumentException if the key is not a valid packed ID.
+     */
+    public static BitsId fromLong(long value) {
+        unpack(value); // Validates the key
+        return new BitsId(value);
+    }
+
+    /**
+     * Packs an ID into its long key, adding it to the fallback table if it fits neither packed form.
+     */
+    public static long pack(String id) {
+        String normalized = normalize(id);
+        long key = packValue(normalized);
+        if (key != NONE) {
+            return key;
+        }
+        synchronized (internedKeys) {
+            Long interned = internedKeys.get(normalized);
+            if (interned == null) {
+                interned = TAG_INTERNED | internedIds.size();
+                internedIds.add(normalized);
+                internedKeys.put(normalized, interned);
+            }
+            return interned;
+        }
+    }
+
+    /**
+     * Like pack(), but never grows the fallback table; use it for lookups of untrusted input
+     * (an ID that was never packed cannot be in any index).
+     * @return The long key, or NONE if the ID was never interned.
+     */
+    public static long find(String id) {
+        String normalized = normalize(id);
+        long key = packValue(normalized);
+        if (key != NONE) {
+            return key;
+        }
+        synchronized (internedKeys) {
+            Long interned = internedKeys.get(normalized);
+            return interned != null ? interned : NONE;
+        }
+    }
+
+    /**
+     * @return The normalized ID a key stands for.
+     * @throws IllegalArgumentException if the key is not a valid packed ID.
+     */
+    public static String unpack(long key) {
+        long tag = key & TAG_MASK;
+        if (tag == TAG_STUDENT) {
+            int campus = (int) (key & 0x3F);
+            int serial = (int) ((key >>> 6) & 0x3FFF);
+            int program = (int) ((key >>> 20) & 0xFFFFFF);
+            int year = (int) ((key >>> 44) & 0x3FFF);
+            if (campus >= CODE_ALPHABET.length() || serial > 9999 || year > 9999) {
+                throw new IllegalArgumentException("Not a packed BITS ID: " + key);
+            }
+            StringBuilder sb = new StringBuilder(STUDENT_ID_LENGTH);
+            appendDigits(sb, year);
+            for (int shift = 18; shift >= 0; shift -= 6) {
+                int code = (program >>> shift) & 0x3F;
+                if (code >= CODE_ALPHABET.length()) {
+                    throw new IllegalArgumentException("Not a packed BITS ID: " + key);
+                }
+                sb.append(CODE_ALPHABET.charAt(code));
+            }
+            appendDigits(sb, serial);
+            return sb.append(CODE_ALPHABET.charAt(campus)).toString();
+        }
+        if (tag == TAG_SHORT) {
+            StringBuilder sb = new StringBuilder(SHORT_MAX_LENGTH);
+            for (int shift = 54; shift >= 0; shift -= 6) {
+                int code = (int) ((key >>> shift) & 0x3F);
+                if (code == 0) break;
+                if (code > SHORT_ALPHABET.length()) {
+                    throw new IllegalArgumentException("Not a packed BITS ID: " + key);
+                }
+                sb.append(SHORT_ALPHABET.charAt(code - 1));
+            }
+            return sb.toString();
+        }
+        if (tag == TAG_INTERNED) {
+            long index = key & ~TAG_MASK;
+            synchronized (internedKeys) {
+                if (index < internedIds.size()) {
+                    return internedIds.get((int) index);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Not a packed BITS ID: " + key);
+    }
+
+    /**
+     * @return true if the key means the same ID in every JVM (it is not from the intern table),
+     * so it can be persisted.
+     */
+    public static boolean isPortable(long key) {
+        return (key & TAG_MASK) != TAG_INTERNED;
+    }
+
+    /**
+     * @return true for a structured student ID (year, program, serial, campus).
+     */
+    public boolean isStudentId() {
+        return (value & TAG_MASK) == TAG_STUDENT;
+    }
+
+    /**
+     * @return The admission year of a student ID, or -1 for other IDs.
+     */
+    public int getYear() {
+        return isStudentId() ? (int) ((value >>> 44) & 0x3FFF) : -1;
+    }
+
+    public long toLong() {
+        return value;
+    }
+
+    @Override
+    public int compareTo(BitsId other) {
+        return Long.compare(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BitsId && ((BitsId) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return unpack(value);
+    }
+
+    private static String normalize(String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("BITS ID is null");
+        }
+        return id.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Packs a normalized ID into one of the two packed forms.
+     * @return The key, or NONE if it fits neither.
+     */
+    private static long packValue(String id) {
+        long student = packStudentId(id);
+        return student != NONE ? student : packShortId(id);
+    }
+
+    private static long packStudentId(String id) {
+        if (id.length() != STUDENT_ID_LENGTH) {
+            return NONE;
+        }
+        int year = parseDigits(id, 0, 4);
+        int serial = parseDigits(id, 8, 12);
+        int campus = CODE_ALPHABET.indexOf(id.charAt(12));
+        if (year < 0 || serial < 0 || campus < 10) { // Campus suffix must be a letter
+            return NONE;
+        }
+        long program = 0;
+        for (int i = 4; i < 8; i++) {
+            int code = CODE_ALPHABET.indexOf(id.charAt(i));
+            if (code < 0) {
+                return NONE;
+            }
+            program = (program << 6) | code;
+        }
+        return TAG_STUDENT | ((long) year << 44) | (program << 20) | ((long) serial << 6) | campus;
+    }
+
+    private static long packShortId(String id) {
+        if (id.length() > SHORT_MAX_LENGTH) {
+            return NONE;
+        }
+        long packed = 0;
+        for (int i = 0; i < SHORT_MAX_LENGTH; i++) {
+            int code = 0;
+            if (i < id.length()) {
+                code = SHORT_ALPHABET.indexOf(id.charAt(i)) + 1;
+                if (code == 0) {
+                    return NONE;
+                }
+            }
+            packed = (packed << 6) | code;
+        }
+        return TAG_SHORT | packed;
+    }
+
+    private static int parseDigits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void appendDigits(StringBuilder sb, int value) {
+        // Four digits, keeping leading zeros
+        sb.append((char) ('0' + value / 1000))
+          .append((char) ('0' + value / 100 % 10))
+          .append((char) ('0' + value / 10 % 10))
+          .append((char) ('0' + value % 10));
+    }
+}
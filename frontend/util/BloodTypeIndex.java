@@ -0,0 +1,165 @@
+package util;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Secondary index from blood type to the students registered with it, used to find
+ * compatible donors in an emergency. One posting list of packed BITS IDs per ABO/Rh type,
+ * in registration order. Maintained by StudentDataFetcher alongside its offset index.
+ *
+ * Compatibility follows the red cell rules: a donor can give to a recipient if the
+ * recipient already carries every antigen (A, B, Rh D) the donor's cells carry.
+ */
+public class BloodTypeIndex {
+
+    /** Canonical blood types, in index order (ABO group * 2 + Rh). */
+    public static final String[] BLOOD_TYPES = { "O-", "O+", "A-", "A+", "B-", "B+", "AB-", "AB+" };
+
+    // Antigen bits per type: A = 1, B = 2, Rh D = 4
+    private static final int ANTIGEN_A = 1;
+    private static final int ANTIGEN_B = 2;
+    private static final int ANTIGEN_RH = 4;
+
+    private final long[][] postings = new long[BLOOD_TYPES.length][];
+    private final int[] sizes = new int[BLOOD_TYPES.length];
+
+    BloodTypeIndex() {
+        for (int i = 0; i < postings.length; i++) {
+            postings[i] = new long[64];
+        }
+    }
+
+    /**
+     * Normalizes free-form input such as "ab+ve", "O Negative" or "0+" to one of BLOOD_TYPES.
+     * @return The canonical type, or null if the input is not a recognisable blood type.
+     */
+    public static String normalize(String bloodType) {
+        int type = typeOf(bloodType);
+        return type < 0 ? null : BLOOD_TYPES[type];
+    }
+
+    /**
+     * @return true if red cells of the donor's type can be given to the recipient.
+     * Inputs are normalized first; unrecognised types are never compatible.
+     */
+    public static boolean canDonate(String donorBloodType, String recipientBloodType) {
+        int donor = typeOf(donorBloodType);
+        int recipient = typeOf(recipientBloodType);
+        return donor >= 0 && recipient >= 0 && (antigens(donor) & ~antigens(recipient)) == 0;
+    }
+
+    /**
+     * Adds a student under their blood type (unrecognised types are not indexed).
+     */
+    void add(long bitsKey, String bloodType) {
+        int type = typeOf(bloodType);
+        if (type < 0) {
+            return;
+        }
+        if (sizes[type] == postings[type].length) {
+            postings[type] = Arrays.copyOf(postings[type], sizes[type] * 2);
+        }
+        postings[type][sizes[type]++] = bitsKey;
+    }
+
+    /**
+     * Removes a student (used when an unterminated last row is re-read).
+     */
+    void remove(long bitsKey) {
+        for (int type = 0; type < postings.length; type++) {
+            long[] list = postings[type];
+            // Searched from the end: the removed row is normally the last one added
+            for (int i = sizes[type] - 1; i >= 0; i--) {
+                if (list[i] == bitsKey) {
+                    System.arraycopy(list, i + 1, list, i, sizes[type] - i - 1);
+                    sizes[type]--;
+                    return;
+                }
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(sizes, 0);
+    }
+
+    /**
+     * @return Packed BITS IDs of every compatible donor, exact type first, then the other
+     * compatible types in BLOOD_TYPES order; empty if the recipient's type is unrecognised.
+     */
+    long[] compatibleDonors(String recipientBloodType) {
+        int recipient = typeOf(recipientBloodType);
+        if (recipient < 0) {
+            return new long[0];
+        }
+        int total = 0;
+        for (int type = 0; type < BLOOD_TYPES.length; type++) {
+            if ((antigens(type) & ~antigens(recipient)) == 0) {
+                total += sizes[type];
+            }
+        }
+        long[] result = new long[total];
+        System.arraycopy(postings[recipient], 0, result, 0, sizes[recipient]);
+        int filled = sizes[recipient];
+        for (int type = 0; type < BLOOD_TYPES.length; type++) {
+            if (type != recipient && (antigens(type) & ~antigens(recipient)) == 0) {
+                System.arraycopy(postings[type], 0, result, filled, sizes[type]);
+                filled += sizes[type];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Number of students indexed under the blood type (0 if unrecognised).
+     */
+    int count(String bloodType) {
+        int type = typeOf(bloodType);
+        return type < 0 ? 0 : sizes[type];
+    }
+
+    private static int antigens(int type) {
+        int group = type >> 1; // 0 = O, 1 = A, 2 = B, 3 = AB
+        int bits = group == 1 ? ANTIGEN_A : group == 2 ? ANTIGEN_B : group == 3 ? ANTIGEN_A | ANTIGEN_B : 0;
+        return (type & 1) == 1 ? bits | ANTIGEN_RH : bits;
+    }
+
+    /**
+     * @return Index into BLOOD_TYPES, or -1 if the input is not a blood type.
+     */
+    private static int typeOf(String bloodType) {
+        if (bloodType == null) {
+            return -1;
+        }
+        String trimmed = bloodType.trim();
+        for (int type = 0; type < BLOOD_TYPES.length; type++) {
+            if (BLOOD_TYPES[type].equalsIgnoreCase(trimmed)) {
+                return type; // Already canonical (the usual case)
+            }
+        }
+        String s = bloodType.toUpperCase(Locale.ROOT).replace(" ", "").replace("-", "NEG").replace("+", "POS");
+        // Rh: "+", "+ve", "pos", "positive" / "-", "-ve", "neg", "negative"
+        int rh;
+        int rhAt;
+        if ((rhAt = s.indexOf("POS")) > 0) {
+            rh = 1;
+        } else if ((rhAt = s.indexOf("NEG")) > 0) {
+            rh = 0;
+        } else {
+            return -1;
+        }
+        String rest = s.substring(rhAt).replaceFirst("^(POSITIVE|NEGATIVE|POSVE|NEGVE|POS|NEG)$", "");
+        if (!rest.isEmpty()) {
+            return -1;
+        }
+        String group = s.substring(0, rhAt).replace('0', 'O');
+        switch (group) {
+            case "O": return rh;
+            case "A": return 2 + rh;
+            case "B": return 4 + rh;
+            case "AB": return 6 + rh;
+            default: return -1;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared dictionary for a low-cardinality column (gender, blood type, ...).
+ * Each distinct value is stored once and records keep a small code instead of a String.
+ * Codes are assigned in first-seen order and never change; decoding is a lock-free array read.
+ */
+public class ColumnDictionary {
+
+    // Codes are stored as char, so at most this many distinct values
+    private static final int MAX_CODES = Character.MAX_VALUE + 1;
+
+    private final String column;
+    private final Map<String, Character> codes = new HashMap<>();
+    // Replaced (never mutated in place) when it grows, so readers need no lock
+    private volatile String[] values = new String[8];
+    private int size = 0;
+
+    /**
+     * @param column Column name, for error messages.
+     */
+    public ColumnDictionary(String column) {
+        this.column = column;
+    }
+
+    /**
+     * @return The code for the value, adding it to the dictionary if it is new.
+     * @throws IllegalStateException if the column has more distinct values than codes.
+     */
+    public synchronized char encode(String value) {
+        Character code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == MAX_CODES) {
+            throw new IllegalStateException("Too many distinct values in column " + column);
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, Math.min(current.length * 2, MAX_CODES));
+        }
+        current[size] = value;
+        values = current; // Publish the new value before its code can be handed out
+        code = (char) size++;
+        codes.put(value, code);
+        return code;
+    }
+
+    /**
+     * @return The value for a code returned by encode().
+     */
+    public String decode(char code) {
+        return values[code];
+    }
+
+    /**
+     * @return Number of distinct values seen.
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -1,23 +1,62 @@
 package util;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
+import java.io.ByteArrayOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Manages user credentials (ID, Password, Role) stored in a CSV file.
  * Demonstrates basic file I/O and exception handling (try-with-resources).
+ * The file is loaded once into an in-memory hash index keyed by the packed username
+ * (see BitsId), so logins are answered without re-reading the CSV.
+ * The packed key ignores case, but a login must still match the stored username exactly;
+ * registration rejects a username that differs from an existing one only in case.
  */
 public class CredentialManager {
-    private static final String FILE_PATH = "C:\\Users\\vigne\\Documents\\BPDCCLinic\\frontend\\credentials.csv";
+    // Overridable (bpdc.credentials.file) so benchmarks and load tests can point at a generated file
+    private static final String FILE_PATH =
+        System.getProperty("bpdc.credentials.file", "C:\\Users\\vigne\\Documents\\BPDCCLinic\\frontend\\credentials.csv");
     private static final String DELIMITER = ",";
     private static final String CSV_HEADER = "Username,Password,Role";
+    private static final int READ_CHUNK_BYTES = 64 * 1024;
+
+    /**
+     * A single stored credential row (username as written, password and role).
+     */
+    private static final class StoredCredential {
+        final String username;
+        final String password;
+        final String role;
+
+        StoredCredential(String username, String password, String role) {
+            this.username = username;
+            this.password = password;
+            this.role = role;
+        }
+    }
+
+    // Shared by every CredentialManager in this JVM (login screen and registration form)
+    // Packed username -> slot in credentialSlots
+    private static final LongLongHashMap credentialIndex = new LongLongHashMap(256, -1L);
+    private static final List<StoredCredential> credentialSlots = new ArrayList<>();
+    // Byte offset just past the last complete line that has been indexed
+    private static long indexedSize = 0;
+    // Last-modified time of the file when it was last indexed (-1 = never indexed)
+    private static long indexedModified = -1;
+    // Username key taken from an unterminated last line; replaced once that line is re-read
+    private static long unterminatedUsername = BitsId.NONE;
 
     /**
      * Ensures the credential file exists and has a header. Creates mock data if new.
@@ -31,55 +70,169 @@ public class CredentialManager {
             }
         }
     }
+
+    /**
+     * Brings the index up to date with the file on disk.
+     * Only the file's size and modification time are checked when nothing has changed.
+     * If the file only grew (e.g. another kiosk appended a user), just the new tail is read;
+     * if it shrank or was rewritten in place, the index is rebuilt from scratch.
+     */
+    private void refreshIndex() {
+        synchronized (credentialIndex) {
+            ensureFileExists();
+            Path path = Paths.get(FILE_PATH);
+            try {
+                long size = Files.size(path);
+                long modified = Files.getLastModifiedTime(path).toMillis();
+                if (size == indexedSize && modified == indexedModified) {
+                    return; // Index is current
+                }
+
+                if (size < indexedSize || (size == indexedSize && modified != indexedModified)) {
+                    // Truncated or rewritten: start over
+                    credentialIndex.clear();
+                    credentialSlots.clear();
+                    indexedSize = 0;
+                } else if (unterminatedUsername != BitsId.NONE) {
+                    // The unterminated line is about to be read again, possibly completed
+                    long slot = credentialIndex.remove(unterminatedUsername);
+                    if (slot == credentialSlots.size() - 1) {
+                        credentialSlots.remove((int) slot); // It was the last row indexed
+                    }
+                }
+                unterminatedUsername = BitsId.NONE;
+
+                indexedSize = indexFrom(path, indexedSize);
+                indexedModified = modified;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Reads lines starting at the given byte offset and adds them to the index.
+     * The file is read in READ_CHUNK_BYTES chunks, so memory use does not depend on its size.
+     * An unterminated last line is indexed too, but the returned offset stays in front of it
+     * so it is re-read (and replaced) once the writer finishes the line.
+     * @return The offset just past the last newline-terminated line that was indexed.
+     */
+    private long indexFrom(Path path, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer chunk = ByteBuffer.allocate(READ_CHUNK_BYTES);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+            boolean atHeader = offset == 0; // The header only appears at the very start of the file
+            long position = offset;
+            long end = offset;
+            int read;
+            while ((read = channel.read(chunk, position)) > 0) {
+                byte[] bytes = chunk.array();
+                int lineStart = 0;
+                for (int i = 0; i < read; i++) {
+                    if (bytes[i] == '\n') {
+                        line.write(bytes, lineStart, i - lineStart);
+                        if (!atHeader) {
+                            indexLine(line.toString(StandardCharsets.UTF_8), false);
+                        }
+                        atHeader = false;
+                        line.reset();
+                        lineStart = i + 1;
+                        end = position + i + 1;
+                    }
+                }
+                line.write(bytes, lineStart, read - lineStart);
+                position += read;
+                chunk.clear();
+            }
+            if (line.size() > 0 && !atHeader) {
+                indexLine(line.toString(StandardCharsets.UTF_8), true);
+            }
+            return end;
+        }
+    }
+
+    /**
+     * Adds one "Username,Password,Role" line to the index (caller holds the index lock).
+     */
+    private void indexLine(String line, boolean unterminated) {
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+        String[] parts = line.split(DELIMITER);
+        if (parts.length >= 3) {
+            long storedUsername = BitsId.pack(parts[0]);
+            // First row wins, matching the original top-to-bottom scan
+            boolean added = credentialIndex.putIfAbsent(storedUsername, credentialSlots.size());
+            if (added) {
+                credentialSlots.add(new StoredCredential(parts[0].trim(), parts[1].trim(), parts[2].trim()));
+            }
+            if (unterminated && added) {
+                unterminatedUsername = storedUsername;
+            }
+        }
+    }
     
     /**
      * Verifies if the provided username and password exist in the CSV file.
      * @return An Optional containing the Role (e.g., "Student", "Nurse", or "Admin") if found.
      */
     public Optional<String> verifyCredentials(String username, String password) {
-        ensureFileExists();
+        refreshIndex();
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
-            reader.readLine(); // Skip the header
-            
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(DELIMITER);
-                if (parts.length >= 3) {
-                    // Note: Removed redundant replace("\"", "") calls as input data doesn't have quotes
-                    String storedUsername = parts[0].trim();
-                    String storedPassword = parts[1].trim();
-                    String storedRole = parts[2].trim();
-                    
-                    if (storedUsername.equals(username) && storedPassword.equals(password)) {
-                        return Optional.of(storedRole); // Match found
-                    }
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        long key = BitsId.find(username);
+        if (key == BitsId.NONE) {
+            return Optional.empty(); // Never seen: cannot be registered
+        }
+        StoredCredential stored;
+        synchronized (credentialIndex) {
+            long slot = credentialIndex.get(key);
+            stored = slot >= 0 ? credentialSlots.get((int) slot) : null;
+        }
+        // The key matches regardless of case; the username itself must match exactly
+        if (stored != null && stored.username.equals(username) && stored.password.equals(password)) {
+            return Optional.of(stored.role); // Match found
         }
         return Optional.empty(); // No match found
     }
     
+    /**
+     * Checks whether a username is already registered, using the in-memory index.
+     * Usernames that differ only in case count as the same (they share an index key).
+     */
+    public boolean isRegistered(String username) {
+        refreshIndex();
+        long key = BitsId.find(username);
+        synchronized (credentialIndex) {
+            return key != BitsId.NONE && credentialIndex.containsKey(key);
+        }
+    }
+    
     /**
      * Adds a new user credential to the file.
+     * Duplicates are rejected from the index before the file is opened.
      */
      public boolean addCredential(String username, String password, String role) {
-        ensureFileExists();
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH, true))) {
-            // Simple check to prevent duplicates
-            if (verifyCredentials(username, "nonexistent").isPresent()) {
+        synchronized (credentialIndex) {
+            // Simple check to prevent duplicates (constant time, no file scan)
+            if (isRegistered(username)) {
                 return false; // User already exists
             }
-            
-            String line = username + DELIMITER + password + DELIMITER + role;
-            writer.write(line);
-            writer.newLine();
+
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH, true))) {
+                if (unterminatedUsername != BitsId.NONE) {
+                    writer.newLine(); // Don't glue the new row onto an unterminated last line
+                }
+                String line = username + DELIMITER + password + DELIMITER + role;
+                writer.write(line);
+                writer.newLine();
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            }
+
+            // Pick up the appended row (only the new tail is read)
+            refreshIndex();
             return true;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,251 @@
+package util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * RFC 4180 CSV tokenizer shared by the CSV writers and readers.
+ * Quoted fields may contain commas, escaped quotes ("") and line breaks.
+ * One instance reuses its field buffer and field array across rows, so tokenizing
+ * a row only allocates the field Strings themselves. Not thread-safe.
+ */
+public class CsvTokenizer {
+
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+    private static final int END = -1;
+    private static final int NONE = -2;
+
+    // Streaming mode: characters come from a Reader through a reusable buffer
+    private final Reader in;
+    private final char[] buffer;
+    private int bufferPosition;
+    private int bufferLimit;
+
+    private int pushback = NONE;
+
+    private final StringBuilder field = new StringBuilder(64);
+    private String[] fields = new String[16];
+    private int fieldCount;
+
+    /**
+     * Creates a tokenizer for single records passed to {@link #tokenize(CharSequence)}.
+     */
+    public CsvTokenizer() {
+        this.in = null;
+        this.buffer = null;
+    }
+
+    /**
+     * Creates a streaming tokenizer; call {@link #nextRecord()} to advance through the input.
+     */
+    public CsvTokenizer(Reader in) {
+        this.in = in;
+        this.buffer = new char[8192];
+    }
+
+    /**
+     * Tokenizes one complete record (without its trailing line break).
+     * @return The number of fields.
+     */
+    public int tokenize(CharSequence record) {
+        fieldCount = 0;
+        int length = record.length();
+        int position = 0;
+        while (true) {
+            if (position < length && record.charAt(position) == QUOTE) {
+                position = parseQuotedField(record, position + 1, length);
+            } else {
+                // Unquoted field: slice it out directly
+                int start = position;
+                while (position < length && record.charAt(position) != DELIMITER) {
+                    position++;
+                }
+                addField(record.subSequence(start, position).toString());
+            }
+
+            if (position < length && record.charAt(position) == DELIMITER) {
+                position++;
+                continue;
+            }
+            return fieldCount;
+        }
+    }
+
+    /**
+     * Parses a quoted field whose opening quote has been consumed.
+     * Fields without escaped quotes are copied in one bulk append; others are unescaped char by char.
+     * @return The position of the delimiter (or end) after the field.
+     */
+    private int parseQuotedField(CharSequence record, int start, int length) {
+        int position = start;
+        while (position < length && record.charAt(position) != QUOTE) {
+            position++;
+        }
+        if (position + 1 >= length || record.charAt(position + 1) != QUOTE) {
+            // No escaped quotes: the value is everything up to the closing quote
+            field.setLength(0);
+            field.append(record, start, position);
+            position++; // Closing quote (if present)
+        } else {
+            field.setLength(0);
+            field.append(record, start, position);
+            while (position < length) {
+                char ch = record.charAt(position);
+                if (ch == QUOTE) {
+                    if (position + 1 < length && record.charAt(position + 1) == QUOTE) {
+                        field.append(QUOTE);
+                        position += 2;
+                        continue;
+                    }
+                    position++; // Closing quote
+                    break;
+                }
+                field.append(ch);
+                position++;
+            }
+        }
+        // Anything left after the closing quote is kept leniently
+        while (position < length && record.charAt(position) != DELIMITER) {
+            field.append(record.charAt(position++));
+        }
+        addField(field.toString());
+        return position;
+    }
+
+    /**
+     * Reads the next record from the Reader.
+     * @return false at the end of the input.
+     */
+    public boolean nextRecord() throws IOException {
+        int c = read();
+        if (c == END) {
+            return false;
+        }
+        parseRecord(c);
+        return true;
+    }
+
+    /**
+     * @return The number of fields in the current record.
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return The unescaped value of a field in the current record.
+     */
+    public String field(int index) {
+        if (index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount);
+        }
+        return fields[index];
+    }
+
+    /**
+     * @return A copy of the current record's fields.
+     */
+    public String[] toArray() {
+        return Arrays.copyOf(fields, fieldCount);
+    }
+
+    /**
+     * Appends one record to the builder, quoting every field and escaping embedded quotes.
+     * No line break is appended.
+     */
+    public static void appendRecord(StringBuilder sb, String[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(DELIMITER);
+            }
+            String value = values[i] == null ? "" : values[i];
+            sb.append(QUOTE);
+            for (int j = 0; j < value.length(); j++) {
+                char ch = value.charAt(j);
+                if (ch == QUOTE) {
+                    sb.append(QUOTE);
+                }
+                sb.append(ch);
+            }
+            sb.append(QUOTE);
+        }
+    }
+
+    /**
+     * @return The record formatted as a single CSV line (without a line break).
+     */
+    public static String formatRecord(String[] values) {
+        StringBuilder sb = new StringBuilder(values.length * 16);
+        appendRecord(sb, values);
+        return sb.toString();
+    }
+
+    /**
+     * Parses fields until the end of the record, starting with the already-read character c.
+     */
+    private void parseRecord(int c) throws IOException {
+        fieldCount = 0;
+        while (true) {
+            field.setLength(0);
+            if (c == QUOTE) {
+                // Quoted field: read until the closing quote, unescaping ""
+                while (true) {
+                    c = read();
+                    if (c == END) break;
+                    if (c == QUOTE) {
+                        c = read();
+                        if (c != QUOTE) break; // Closing quote
+                    }
+                    field.append((char) c);
+                }
+            }
+            // Unquoted field, or anything left after a closing quote (kept leniently)
+            while (c != END && c != DELIMITER && c != '\n' && c != '\r') {
+                field.append((char) c);
+                c = read();
+            }
+            addField(field.toString());
+
+            if (c == DELIMITER) {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                int next = read();
+                if (next != '\n' && next != END) {
+                    pushback = next;
+                }
+            }
+            return; // End of line or end of input
+        }
+    }
+
+    private void addField(String value) {
+        if (fieldCount == fields.length) {
+            fields = Arrays.copyOf(fields, fields.length * 2);
+        }
+        fields[fieldCount++] = value;
+    }
+
+    private int read() throws IOException {
+        if (pushback != NONE) {
+            int c = pushback;
+            pushback = NONE;
+            return c;
+        }
+        if (in == null) {
+            return END;
+        }
+        if (bufferPosition == bufferLimit) {
+            bufferLimit = in.read(buffer, 0, buffer.length);
+            bufferPosition = 0;
+            if (bufferLimit <= 0) {
+                bufferLimit = 0;
+                return END;
+            }
+        }
+        return buffer[bufferPosition++];
+    }
+}
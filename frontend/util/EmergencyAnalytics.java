@@ -0,0 +1,230 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Live emergency statistics, updated from the event stream instead of re-reading the log.
+ * Everything lives in fixed-size rings and tables, so each update is O(1) and memory is bounded:
+ *   - presses and new incidents per minute for the last hour, and per hour for the last day,
+ *     in rings indexed by minute / hour (a slot is reset when its time comes round again);
+ *   - the most frequent callers since startup, tracked with the Space-Saving algorithm in
+ *     TOP_CALLER_SLOTS counters (a count can be over-estimated by the count it took over, so only
+ *     callers certain to have pressed more than once are reported);
+ *   - a histogram of time-to-acknowledge (press until the alert channel confirmed delivery).
+ * Feed it with EmergencyLogWriter.addListener and addAcknowledgementListener, after seeding it
+ * with the last day of EmergencyLogWriter.findEmergencies (events may arrive in any order). Thread-safe.
+ */
+public class EmergencyAnalytics {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int TOP_CALLER_SLOTS = 32;
+
+    /** Upper bounds (exclusive, in ms) of the time-to-acknowledge buckets; the last bucket is open-ended. */
+    public static final long[] ACK_BUCKET_BOUNDS = { 1_000, 2_000, 5_000, 10_000, 30_000, 60_000, 300_000 };
+
+    /**
+     * A caller and (an upper bound on) how many times they pressed.
+     */
+    public static class Caller {
+        public final String bitsId;
+        public final long presses;
+
+        Caller(String bitsId, long presses) {
+            this.bitsId = bitsId;
+            this.presses = presses;
+        }
+    }
+
+    /**
+     * Point-in-time copy of the statistics, for display.
+     */
+    public static class Snapshot {
+        public final int pressesLastHour;
+        public final int incidentsLastHour;
+        public final int pressesLast24Hours;
+        public final int incidentsLast24Hours;
+        public final int[] pressesPerHour; // Last 24 hours, oldest first (the last entry is the current hour)
+        public final List<Caller> topCallers; // Callers with more than one press, most first
+        public final long[] ackHistogram; // One count per ACK_BUCKET_BOUNDS entry, plus the open-ended bucket
+        public final long ackCount;
+
+        Snapshot(int pressesLastHour, int incidentsLastHour, int pressesLast24Hours, int incidentsLast24Hours,
+                 int[] pressesPerHour, List<Caller> topCallers, long[] ackHistogram, long ackCount) {
+            this.pressesLastHour = pressesLastHour;
+            this.incidentsLastHour = incidentsLastHour;
+            this.pressesLast24Hours = pressesLast24Hours;
+            this.incidentsLast24Hours = incidentsLast24Hours;
+            this.pressesPerHour = pressesPerHour;
+            this.topCallers = topCallers;
+            this.ackHistogram = ackHistogram;
+            this.ackCount = ackCount;
+        }
+
+        /**
+         * @param percentile e.g. 50, 95.
+         * @return Upper bound in ms of the bucket holding that percentile, Long.MAX_VALUE if it is
+         * the open-ended bucket, or -1 if nothing has been acknowledged yet.
+         */
+        public long ackPercentileBound(double percentile) {
+            if (ackCount == 0) {
+                return -1;
+            }
+            long rank = (long) Math.ceil(percentile / 100.0 * ackCount);
+            long seen = 0;
+            for (int i = 0; i < ackHistogram.length; i++) {
+                seen += ackHistogram[i];
+                if (seen >= Math.max(rank, 1)) {
+                    return i < ACK_BUCKET_BOUNDS.length ? ACK_BUCKET_BOUNDS[i] : Long.MAX_VALUE;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // Rings: slot = time unit modulo ring size; the slot's unit number says whether it is current
+    private final long[] minuteOfSlot = new long[MINUTES_PER_HOUR];
+    private final int[] pressesPerMinute = new int[MINUTES_PER_HOUR];
+    private final int[] incidentsPerMinute = new int[MINUTES_PER_HOUR];
+    private final long[] hourOfSlot = new long[HOURS_PER_DAY];
+    private final int[] pressesPerHourSlot = new int[HOURS_PER_DAY];
+    private final int[] incidentsPerHourSlot = new int[HOURS_PER_DAY];
+
+    // Space-Saving counters for the top callers
+    private final long[] callerKeys = new long[TOP_CALLER_SLOTS];
+    private final long[] callerCounts = new long[TOP_CALLER_SLOTS];
+    private final long[] callerErrors = new long[TOP_CALLER_SLOTS]; // Count inherited on takeover
+    private int callerSlotsUsed = 0;
+
+    private final long[] ackHistogram = new long[ACK_BUCKET_BOUNDS.length + 1];
+    private long ackCount = 0;
+
+    public EmergencyAnalytics() {
+        Arrays.fill(minuteOfSlot, -1);
+        Arrays.fill(hourOfSlot, -1);
+    }
+
+    /**
+     * Counts one logged emergency press.
+     */
+    public synchronized void onEmergency(EmergencyEvent event) {
+        boolean newIncident = EmergencyLogWriter.LOG_ENTRY_TYPE.equals(event.type);
+
+        // An event older than a ring's whole window (its slot already holds a later unit) is not counted there
+        long minute = Math.floorDiv(event.timestampMillis, MINUTE_MILLIS);
+        int m = Math.floorMod(minute, MINUTES_PER_HOUR);
+        if (minuteOfSlot[m] < minute) {
+            minuteOfSlot[m] = minute;
+            pressesPerMinute[m] = 0;
+            incidentsPerMinute[m] = 0;
+        }
+        if (minuteOfSlot[m] == minute) {
+            pressesPerMinute[m]++;
+            if (newIncident) incidentsPerMinute[m]++;
+        }
+
+        long hour = Math.floorDiv(event.timestampMillis, HOUR_MILLIS);
+        int h = Math.floorMod(hour, HOURS_PER_DAY);
+        if (hourOfSlot[h] < hour) {
+            hourOfSlot[h] = hour;
+            pressesPerHourSlot[h] = 0;
+            incidentsPerHourSlot[h] = 0;
+        }
+        if (hourOfSlot[h] == hour) {
+            pressesPerHourSlot[h]++;
+            if (newIncident) incidentsPerHourSlot[h]++;
+        }
+
+        countCaller(event.bitsKey);
+    }
+
+    /**
+     * Records that an alert was confirmed by its channel at the given time.
+     */
+    public synchronized void onAcknowledged(EmergencyEvent event, long acknowledgedMillis) {
+        long elapsed = Math.max(0, acknowledgedMillis - event.timestampMillis);
+        int bucket = 0;
+        while (bucket < ACK_BUCKET_BOUNDS.length && elapsed >= ACK_BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        ackHistogram[bucket]++;
+        ackCount++;
+    }
+
+    /**
+     * @param now Current time, which decides which ring slots are still inside their window.
+     * @param topN Maximum number of top callers to return.
+     */
+    public synchronized Snapshot snapshot(long now, int topN) {
+        long currentMinute = Math.floorDiv(now, MINUTE_MILLIS);
+        int pressesLastHour = 0;
+        int incidentsLastHour = 0;
+        for (int m = 0; m < MINUTES_PER_HOUR; m++) {
+            if (minuteOfSlot[m] > currentMinute - MINUTES_PER_HOUR && minuteOfSlot[m] <= currentMinute) {
+                pressesLastHour += pressesPerMinute[m];
+                incidentsLastHour += incidentsPerMinute[m];
+            }
+        }
+
+        long currentHour = Math.floorDiv(now, HOUR_MILLIS);
+        int[] perHour = new int[HOURS_PER_DAY];
+        int pressesLastDay = 0;
+        int incidentsLastDay = 0;
+        for (int h = 0; h < HOURS_PER_DAY; h++) {
+            long age = currentHour - hourOfSlot[h];
+            if (hourOfSlot[h] >= 0 && age >= 0 && age < HOURS_PER_DAY) {
+                perHour[HOURS_PER_DAY - 1 - (int) age] = pressesPerHourSlot[h];
+                pressesLastDay += pressesPerHourSlot[h];
+                incidentsLastDay += incidentsPerHourSlot[h];
+            }
+        }
+
+        List<Caller> callers = new ArrayList<>();
+        boolean[] taken = new boolean[callerSlotsUsed];
+        while (callers.size() < topN) {
+            int best = -1;
+            for (int i = 0; i < callerSlotsUsed; i++) {
+                // Only callers certain to have pressed more than once
+                if (!taken[i] && callerCounts[i] - callerErrors[i] > 1 && (best < 0 || callerCounts[i] > callerCounts[best])) {
+                    best = i;
+                }
+            }
+            if (best < 0) break;
+            taken[best] = true;
+            callers.add(new Caller(BitsId.unpack(callerKeys[best]), callerCounts[best]));
+        }
+
+        return new Snapshot(pressesLastHour, incidentsLastHour, pressesLastDay, incidentsLastDay,
+                perHour, callers, ackHistogram.clone(), ackCount);
+    }
+
+    /**
+     * Space-Saving update: bump the caller's counter, or take over the smallest one when all are in use.
+     */
+    private void countCaller(long bitsKey) {
+        int smallest = 0;
+        for (int i = 0; i < callerSlotsUsed; i++) {
+            if (callerKeys[i] == bitsKey) {
+                callerCounts[i]++;
+                return;
+            }
+            if (callerCounts[i] < callerCounts[smallest]) {
+                smallest = i;
+            }
+        }
+        if (callerSlotsUsed < TOP_CALLER_SLOTS) {
+            callerKeys[callerSlotsUsed] = bitsKey;
+            callerCounts[callerSlotsUsed] = 1;
+            callerErrors[callerSlotsUsed] = 0;
+            callerSlotsUsed++;
+        } else {
+            callerKeys[smallest] = bitsKey;
+            callerErrors[smallest] = callerCounts[smallest];
+            callerCounts[smallest]++;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package util;
+
+/**
+ * An emergency call raised from one of the dashboards.
+ * Immutable; handed from the caller to the emergency pipeline and its listeners.
+ */
+public class EmergencyEvent {
+    public final String bitsId; // Normalized (see BitsId)
+    public final long bitsKey; // The same ID packed, for per-user indexes
+    public final String fullName;
+    public final String type; // e.g. "emergencycall_1"
+    public final long timestampMillis; // When the button was pressed
+
+    public EmergencyEvent(String bitsId, String fullName, String type, long timestampMillis) {
+        this.bitsKey = BitsId.pack(bitsId);
+        this.bitsId = BitsId.unpack(bitsKey);
+        this.fullName = fullName;
+        this.type = type;
+        this.timestampMillis = timestampMillis;
+    }
+}
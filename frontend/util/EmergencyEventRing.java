@@ -0,0 +1,171 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Fixed-size ring buffer carrying emergency events from any number of producers
+ * to a single consumer thread (Disruptor-style: producers claim a sequence with CAS,
+ * publish by writing the slot, and the consumer drains published slots in order).
+ * Publishing never takes a lock, so callers on the EDT return in microseconds.
+ */
+class EmergencyEventRing {
+
+    /**
+     * A published event plus the future completed once the consumer has persisted it.
+     */
+    static final class Entry {
+        final EmergencyEvent event;
+        final CompletableFuture<Boolean> durable = new CompletableFuture<>();
+
+        Entry(EmergencyEvent event) {
+            this.event = event;
+        }
+    }
+
+    // Spins before the consumer parks, and the longest it parks for (producers unpark it)
+    private static final int SPIN_TRIES = 200;
+    private static final long PARK_NANOS = 100_000_000L;
+
+    private final int capacity;
+    private final int mask;
+    private final int maxBatchSize;
+    private final AtomicReferenceArray<Entry> slots;
+    private final Consumer<List<Entry>> batchHandler;
+
+    // Next sequence to be claimed by a producer
+    private final AtomicLong claimed = new AtomicLong();
+    // Next sequence the consumer will read (everything before it has been taken)
+    private volatile long consumed = 0;
+    // Events the handler has finished with (written only by the consumer)
+    private volatile long handled = 0;
+    private final AtomicLong maxDepth = new AtomicLong();
+
+    private final Thread consumerThread;
+    private volatile boolean consumerParked = false;
+
+    /**
+     * @param capacity Number of slots (rounded up to a power of two).
+     * @param maxBatchSize Largest batch handed to the handler at once.
+     * @param batchHandler Called on the consumer thread with each batch, in publish order.
+     */
+    EmergencyEventRing(int capacity, int maxBatchSize, Consumer<List<Entry>> batchHandler, String threadName) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.maxBatchSize = maxBatchSize;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.batchHandler = batchHandler;
+        this.consumerThread = new Thread(this::runConsumer, threadName);
+        this.consumerThread.setDaemon(true);
+        this.consumerThread.start();
+    }
+
+    /**
+     * Publishes an entry without blocking.
+     * @return false if the ring is full (the caller must handle the entry itself).
+     */
+    boolean tryPublish(Entry entry) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        slots.set((int) (sequence & mask), entry);
+        maxDepth.accumulateAndGet(sequence + 1 - consumed, Math::max);
+        if (consumerParked) {
+            LockSupport.unpark(consumerThread);
+        }
+        return true;
+    }
+
+    /**
+     * @return Events claimed by producers but not yet taken by the consumer.
+     */
+    long depth() {
+        return Math.max(0, claimed.get() - consumed);
+    }
+
+    /**
+     * @return Events published but not yet fully handled (queued or in the current batch).
+     */
+    long unhandled() {
+        return Math.max(0, claimed.get() - handled);
+    }
+
+    /**
+     * @return The largest depth seen since startup.
+     */
+    long maxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * @return Total events published since startup.
+     */
+    long published() {
+        return claimed.get();
+    }
+
+    private void runConsumer() {
+        List<Entry> batch = new ArrayList<>(maxBatchSize);
+        long next = 0;
+        int idleSpins = 0;
+        while (true) {
+            int index = (int) (next & mask);
+            Entry entry = slots.get(index);
+            if (entry != null) {
+                batch.add(entry);
+                slots.set(index, null);
+                consumed = ++next; // Frees the slot for producers
+                idleSpins = 0;
+                if (batch.size() < maxBatchSize) {
+                    continue;
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                handle(batch);
+                continue;
+            }
+
+            // Nothing published yet: spin briefly, then park until a producer unparks us
+            if (++idleSpins < SPIN_TRIES) {
+                Thread.onSpinWait();
+                continue;
+            }
+            consumerParked = true;
+            if (slots.get(index) == null) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            consumerParked = false;
+            idleSpins = 0;
+        }
+    }
+
+    /**
+     * Hands a batch to the handler. Anything it throws, Errors included (e.g. an OutOfMemoryError
+     * in a listener), fails only this batch: the consumer is the only thread draining the ring.
+     */
+    private void handle(List<Entry> batch) {
+        try {
+            batchHandler.accept(batch);
+        } catch (Throwable e) {
+            System.err.println("Emergency pipeline error: " + e);
+            for (Entry entry : batch) {
+                entry.durable.complete(false);
+            }
+        } finally {
+            handled += batch.size();
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,654 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Emergency log kept as time-partitioned segment files (one per UTC day or hour) instead of a
+ * single ever-growing file, so a query by time range or BITS ID reads only the segments, and
+ * the blocks within them, that can hold matches.
+ *
+ * A segment is plain text, one "timestamp | BITS_ID | type | epochMillis" line per event (the first
+ * three fields are the old emergency_logs.txt format; the timestamp is in LOG_ZONE, i.e. UTC).
+ * Once a newer segment exists, the older one is sealed by appending a footer:
+ *   #block offset length count min max   one per BLOCK_SIZE events (sparse time index)
+ *   #ids id id ...                       distinct BITS IDs in the segment (tab-separated)
+ *   #footer count min max offset         offset = where the first #block line starts
+ * Footers are read once and cached. Sealed segments older than the compression age are gzipped,
+ * and segments older than the retention period are deleted, on a background thread.
+ * Events from before the newest segment's window (clock changes) go into the newest segment;
+ * the block and footer bounds cover them, so queries still find them.
+ */
+public class EmergencyLogStore {
+
+    // Events per block of the sparse time index
+    private static final int BLOCK_SIZE = 64;
+    private static final String SEGMENT_PREFIX = "emergency-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPRESSED_SUFFIX = ".log.gz";
+    private static final String FIELD_SEPARATOR = " | ";
+    // Bytes read from the end of a segment to find its #footer line
+    private static final int FOOTER_PROBE_BYTES = 256;
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    /**
+     * Zone of the timestamp column and of segment windows and names, for anything that writes or
+     * reads segment files directly (e.g. bench.DatasetGenerator). Windows are whole days or hours
+     * of epoch time, so it must stay UTC.
+     */
+    public static final ZoneOffset LOG_ZONE = ZoneOffset.UTC;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(LOG_ZONE);
+
+    /**
+     * A run of up to BLOCK_SIZE consecutive lines and their time bounds.
+     */
+    private static final class Block {
+        final long offset;
+        long length;
+        int count;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+
+        Block(long offset) {
+            this.offset = offset;
+        }
+
+        Block copy() {
+            Block copy = new Block(offset);
+            copy.length = length;
+            copy.count = count;
+            copy.min = min;
+            copy.max = max;
+            return copy;
+        }
+    }
+
+    /**
+     * What is known about one segment file. Sealed segments are never changed again
+     * (compression replaces the object); the open segment is only changed under the store lock.
+     */
+    private static final class Segment {
+        final long windowStart;
+        final Path path;
+        final boolean sealed;
+        final boolean compressed;
+        final List<Block> blocks = new ArrayList<>();
+        final Set<String> ids = new HashSet<>();
+        long bodyLength = 0;
+        int count = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+
+        Segment(long windowStart, Path path, boolean sealed, boolean compressed) {
+            this.windowStart = windowStart;
+            this.path = path;
+            this.sealed = sealed;
+            this.compressed = compressed;
+        }
+
+        /** Records one event line written at the end of the body. */
+        void add(long timestamp, String bitsId, int lineLength) {
+            Block block = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+            if (block == null || block.count == BLOCK_SIZE) {
+                block = new Block(bodyLength);
+                blocks.add(block);
+            }
+            block.length += lineLength;
+            block.count++;
+            block.min = Math.min(block.min, timestamp);
+            block.max = Math.max(block.max, timestamp);
+            bodyLength += lineLength;
+            count++;
+            min = Math.min(min, timestamp);
+            max = Math.max(max, timestamp);
+            ids.add(bitsId);
+        }
+
+        Segment withState(Path newPath, boolean isSealed, boolean isCompressed) {
+            Segment copy = new Segment(windowStart, newPath, isSealed, isCompressed);
+            for (Block block : blocks) {
+                copy.blocks.add(block.copy());
+            }
+            copy.ids.addAll(ids);
+            copy.bodyLength = bodyLength;
+            copy.count = count;
+            copy.min = min;
+            copy.max = max;
+            return copy;
+        }
+
+        boolean overlaps(long from, long to) {
+            return count > 0 && max >= from && min < to;
+        }
+    }
+
+    private final Path directory;
+    private final long segmentMillis;
+    private final DateTimeFormatter nameFormat;
+    private final long compressAfterMillis; // 0 = never compress
+    private final long retentionMillis; // 0 = keep forever
+
+    // All segments by window start; the last one is the one being appended to
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private boolean loaded = false;
+    private FileChannel openChannel;
+    // Readers hold it while reading segment files; maintenance holds it exclusively to replace or delete them
+    private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private final ExecutorService maintenance;
+
+    /**
+     * @param directory Folder holding the segment files (created if missing).
+     * @param hourly true for one segment per hour, false for one per day.
+     * @param compressAfterDays Gzip sealed segments older than this (0 = never).
+     * @param retentionDays Delete segments older than this (0 = keep forever).
+     */
+    EmergencyLogStore(Path directory, boolean hourly, int compressAfterDays, int retentionDays) {
+        this.directory = directory;
+        this.segmentMillis = hourly ? TimeUnit.HOURS.toMillis(1) : DAY_MILLIS;
+        this.nameFormat = DateTimeFormatter.ofPattern(hourly ? "yyyyMMdd-HH" : "yyyyMMdd").withZone(LOG_ZONE);
+        this.compressAfterMillis = compressAfterDays * DAY_MILLIS;
+        this.retentionMillis = retentionDays * DAY_MILLIS;
+        this.maintenance = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "EmergencyLogMaintenance");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Appends events to the newest segment (starting a new one when its window has passed)
+     * with one write and one fsync.
+     */
+    synchronized void append(List<EmergencyEvent> events) throws IOException {
+        ensureLoaded();
+        long window = windowOf(events.get(0).timestampMillis);
+        Segment segment = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (segment == null || window > segment.windowStart) {
+            closeChannel();
+            segment = new Segment(window, directory.resolve(segmentName(window, SEGMENT_SUFFIX)), false, false);
+            segments.put(window, segment);
+            scheduleMaintenance(); // The previous segment can now be sealed
+        }
+
+        StringBuilder sb = new StringBuilder(events.size() * 64);
+        int[] lineLengths = new int[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            int start = sb.length();
+            appendLine(sb, events.get(i));
+            // Every character written is ASCII except possibly in the ID, so measure the UTF-8 bytes
+            lineLengths[i] = sb.substring(start).getBytes(StandardCharsets.UTF_8).length;
+        }
+        try {
+            if (openChannel == null || !openChannel.isOpen()) {
+                openChannel = FileChannel.open(segment.path,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                openChannel.write(bytes);
+            }
+            openChannel.force(false);
+        } catch (IOException e) {
+            // The file may now end in a partial write: forget it and rescan it on the next append
+            closeChannel();
+            segments.remove(segment.windowStart);
+            loaded = false;
+            throw e;
+        }
+        for (int i = 0; i < events.size(); i++) {
+            EmergencyEvent event = events.get(i);
+            segment.add(event.timestampMillis, event.bitsId, lineLengths[i]);
+        }
+    }
+
+    /**
+     * @return Events with fromMillis <= timestamp < toMillis, oldest first.
+     */
+    List<EmergencyEvent> findBetween(long fromMillis, long toMillis) {
+        List<EmergencyEvent> events = new ArrayList<>();
+        // Held from choosing the segments to reading them, so maintenance cannot move them in between
+        fileLock.readLock().lock();
+        try {
+            List<Segment> candidates = new ArrayList<>();
+            synchronized (this) {
+                loadQuietly();
+                for (Segment segment : segments.values()) {
+                    if (segment.overlaps(fromMillis, toMillis)) {
+                        candidates.add(segment.sealed ? segment : segment.withState(segment.path, false, false));
+                    }
+                }
+            }
+            for (Segment segment : candidates) {
+                for (Block block : segment.blocks) {
+                    if (block.max >= fromMillis && block.min < toMillis) {
+                        for (EmergencyEvent event : parseLines(readRange(segment, block.offset, block.length))) {
+                            if (event.timestampMillis >= fromMillis && event.timestampMillis < toMillis) {
+                                events.add(event);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading emergency log: " + e.getMessage());
+        } finally {
+            fileLock.readLock().unlock();
+        }
+        events.sort(Comparator.comparingLong(e -> e.timestampMillis));
+        return events;
+    }
+
+    /**
+     * @return Every logged event for the BITS ID, oldest first.
+     */
+    List<EmergencyEvent> findByBitsId(String bitsId) {
+        List<EmergencyEvent> events = new ArrayList<>();
+        fileLock.readLock().lock();
+        try {
+            List<Segment> candidates = new ArrayList<>();
+            String id;
+            synchronized (this) {
+                loadQuietly();
+                // find(), not pack(): a query must not grow the ID table. Every logged ID has been
+                // packed by now (when its segment was loaded or written), so NONE means none logged
+                long key = BitsId.find(bitsId);
+                if (key == BitsId.NONE) {
+                    return events;
+                }
+                id = BitsId.unpack(key);
+                for (Segment segment : segments.values()) {
+                    if (segment.ids.contains(id)) {
+                        candidates.add(segment.sealed ? segment : segment.withState(segment.path, false, false));
+                    }
+                }
+            }
+            for (Segment segment : candidates) {
+                for (EmergencyEvent event : parseLines(readRange(segment, 0, segment.bodyLength))) {
+                    if (event.bitsId.equals(id)) {
+                        events.add(event);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading emergency log: " + e.getMessage());
+        } finally {
+            fileLock.readLock().unlock();
+        }
+        events.sort(Comparator.comparingLong(e -> e.timestampMillis));
+        return events;
+    }
+
+    /**
+     * Flushes and closes the open segment.
+     */
+    synchronized void close() {
+        closeChannel();
+    }
+
+    // --- Loading ---
+
+    private void loadQuietly() {
+        try {
+            ensureLoaded();
+        } catch (IOException e) {
+            System.err.println("Error loading emergency log segments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the footer (or, for a segment without one, every line) of each segment file
+     * the first time the store is used, then schedules maintenance (caller holds the store lock).
+     */
+    private void ensureLoaded() throws IOException {
+        if (loaded) {
+            return;
+        }
+        Files.createDirectories(directory);
+        segments.clear();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean compressed = name.endsWith(COMPRESSED_SUFFIX);
+                if (!compressed && !name.endsWith(SEGMENT_SUFFIX)) {
+                    continue; // e.g. a temporary file left by an interrupted compression
+                }
+                String stamp = name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - (compressed ? COMPRESSED_SUFFIX : SEGMENT_SUFFIX).length());
+                long window;
+                try {
+                    window = parseWindow(stamp);
+                } catch (RuntimeException e) {
+                    continue; // Not one of ours (or from a different segment size)
+                }
+                Segment segment = compressed ? readCompressed(file, window) : readSegment(file, window);
+                if (segment != null) {
+                    segments.put(window, segment);
+                }
+            }
+        }
+        loaded = true;
+        scheduleMaintenance();
+    }
+
+    /**
+     * Reads an uncompressed segment: just its footer if sealed, otherwise every line.
+     * An unterminated last line (a write cut short) is cut off so appends stay line-aligned.
+     */
+    private Segment readSegment(Path file, long window) throws IOException {
+        Segment sealed = readFooter(file, window);
+        if (sealed != null) {
+            return sealed;
+        }
+        byte[] data = Files.readAllBytes(file);
+        Segment segment = new Segment(window, file, false, false);
+        int end = scanBody(segment, data, data.length);
+        if (end < data.length) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * @return The sealed segment described by the file's footer, or null if it has none.
+     */
+    private Segment readFooter(Path file, long window) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int probe = (int) Math.min(size, FOOTER_PROBE_BYTES);
+            ByteBuffer tail = ByteBuffer.allocate(probe);
+            channel.read(tail, size - probe);
+            String text = new String(tail.array(), StandardCharsets.UTF_8);
+            int footerAt = text.lastIndexOf("#footer ");
+            if (footerAt < 0 || !text.endsWith("\n")) {
+                return null;
+            }
+            String[] footer = text.substring(footerAt, text.length() - 1).split(" ");
+            long trailerOffset = Long.parseLong(footer[4]);
+            ByteBuffer trailer = ByteBuffer.allocate((int) (size - trailerOffset));
+            channel.read(trailer, trailerOffset);
+            return parseTrailer(new String(trailer.array(), StandardCharsets.UTF_8), file, window, false, trailerOffset);
+        }
+    }
+
+    /**
+     * Reads a gzipped segment's footer (the whole file has to be inflated to reach it).
+     */
+    private Segment readCompressed(Path file, long window) throws IOException {
+        byte[] data;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            data = in.readAllBytes();
+        }
+        String text = new String(data, StandardCharsets.UTF_8);
+        int footerAt = text.lastIndexOf("#footer ");
+        if (footerAt < 0) {
+            System.err.println("Emergency log segment has no footer, skipping: " + file);
+            return null;
+        }
+        long trailerOffset = Long.parseLong(text.substring(footerAt, text.length() - 1).split(" ")[4]);
+        String trailer = new String(data, (int) trailerOffset, data.length - (int) trailerOffset, StandardCharsets.UTF_8);
+        return parseTrailer(trailer, file, window, true, trailerOffset);
+    }
+
+    private Segment parseTrailer(String trailer, Path file, long window, boolean compressed, long bodyLength) {
+        Segment segment = new Segment(window, file, true, compressed);
+        segment.bodyLength = bodyLength;
+        for (String line : trailer.split("\n")) {
+            String[] parts = line.split(line.startsWith("#ids") ? "\t" : " ");
+            switch (parts[0]) {
+                case "#block":
+                    Block block = new Block(Long.parseLong(parts[1]));
+                    block.length = Long.parseLong(parts[2]);
+                    block.count = Integer.parseInt(parts[3]);
+                    block.min = Long.parseLong(parts[4]);
+                    block.max = Long.parseLong(parts[5]);
+                    segment.blocks.add(block);
+                    break;
+                case "#ids":
+                    for (int i = 1; i < parts.length; i++) {
+                        BitsId.pack(parts[i]); // So findByBitsId() can find() IDs logged before a restart
+                        segment.ids.add(parts[i]);
+                    }
+                    break;
+                case "#footer":
+                    segment.count = Integer.parseInt(parts[1]);
+                    segment.min = Long.parseLong(parts[2]);
+                    segment.max = Long.parseLong(parts[3]);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * Adds every complete event line of data[0, limit) to the segment.
+     * @return Offset just past the last complete line.
+     */
+    private static int scanBody(Segment segment, byte[] data, int limit) {
+        int lineStart = 0;
+        for (int i = 0; i < limit; i++) {
+            if (data[i] != '\n') continue;
+            String line = new String(data, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            EmergencyEvent event = parseLine(line);
+            if (event != null) {
+                segment.add(event.timestampMillis, event.bitsId, i + 1 - lineStart);
+            } else {
+                segment.bodyLength += i + 1 - lineStart; // Keep offsets right past a bad line
+            }
+            lineStart = i + 1;
+        }
+        return lineStart;
+    }
+
+    // --- Maintenance (sealing, compression, retention) ---
+
+    private void scheduleMaintenance() {
+        maintenance.execute(this::runMaintenance);
+    }
+
+    /**
+     * Seals every segment but the newest, compresses old sealed segments and deletes expired ones.
+     */
+    private void runMaintenance() {
+        List<Segment> candidates;
+        synchronized (this) {
+            candidates = new ArrayList<>(segments.headMap(segments.isEmpty() ? 0 : segments.lastKey()).values());
+        }
+        long now = System.currentTimeMillis();
+        for (Segment segment : candidates) {
+            try {
+                if (retentionMillis > 0 && segment.windowStart + segmentMillis <= now - retentionMillis) {
+                    replace(segment, null);
+                } else if (!segment.sealed) {
+                    replace(segment, seal(segment));
+                } else if (!segment.compressed && compressAfterMillis > 0
+                        && segment.windowStart + segmentMillis <= now - compressAfterMillis) {
+                    replace(segment, compress(segment));
+                }
+            } catch (IOException e) {
+                System.err.println("Error maintaining emergency log segment " + segment.path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Appends the footer to a segment that is no longer written to.
+     */
+    private Segment seal(Segment segment) throws IOException {
+        Segment sealed = segment.withState(segment.path, true, false);
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.WRITE)) {
+            channel.truncate(segment.bodyLength); // Drop anything after the last known line
+            ByteBuffer bytes = ByteBuffer.wrap(trailer(sealed).getBytes(StandardCharsets.UTF_8));
+            channel.position(segment.bodyLength);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+        return sealed;
+    }
+
+    /**
+     * Gzips a sealed segment to a temporary file and moves it into place.
+     */
+    private Segment compress(Segment segment) throws IOException {
+        Path target = directory.resolve(segmentName(segment.windowStart, COMPRESSED_SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            Files.copy(segment.path, out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return segment.withState(target, true, true);
+    }
+
+    /**
+     * Swaps a segment for its sealed or compressed successor (or drops it if null),
+     * deleting the files no longer needed, while no query is reading segment files.
+     */
+    private void replace(Segment old, Segment replacement) throws IOException {
+        fileLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                if (replacement != null) {
+                    segments.put(old.windowStart, replacement);
+                } else {
+                    segments.remove(old.windowStart);
+                }
+            }
+            if (replacement == null || !replacement.path.equals(old.path)) {
+                Files.deleteIfExists(old.path);
+            }
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    private static String trailer(Segment segment) {
+        StringBuilder sb = new StringBuilder();
+        for (Block block : segment.blocks) {
+            sb.append("#block ").append(block.offset).append(' ').append(block.length).append(' ')
+              .append(block.count).append(' ').append(block.min).append(' ').append(block.max).append('\n');
+        }
+        sb.append("#ids");
+        List<String> ids = new ArrayList<>(segment.ids);
+        Collections.sort(ids);
+        for (String id : ids) {
+            sb.append('\t').append(id); // Tabs, as a short ID may contain a space
+        }
+        sb.append('\n');
+        return sb.append("#footer ").append(segment.count).append(' ').append(segment.min).append(' ')
+                 .append(segment.max).append(' ').append(segment.bodyLength).append('\n').toString();
+    }
+
+    // --- Reading and formatting lines ---
+
+    private static byte[] readRange(Segment segment, long offset, long length) throws IOException {
+        if (segment.compressed) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(segment.path))) {
+                in.skipNBytes(offset);
+                return in.readNBytes((int) length);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocate((int) length);
+            while (bytes.hasRemaining() && channel.read(bytes, offset + bytes.position()) >= 0) {
+                // Keep reading until the range is filled
+            }
+            return bytes.array();
+        }
+    }
+
+    private static List<EmergencyEvent> parseLines(byte[] data) {
+        List<EmergencyEvent> events = new ArrayList<>();
+        for (String line : new String(data, StandardCharsets.UTF_8).split("\n")) {
+            EmergencyEvent event = parseLine(line);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * @return The event on a log line (without the full name, which is not logged), or null if malformed.
+     */
+    private static EmergencyEvent parseLine(String line) {
+        String[] fields = line.split(" \\| ");
+        if (fields.length < 4 || line.startsWith("#")) {
+            return null;
+        }
+        try {
+            return new EmergencyEvent(fields[1], null, fields[2], Long.parseLong(fields[3].trim()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void appendLine(StringBuilder sb, EmergencyEvent event) {
+        // Format: Timestamp | UserID | LogType | EpochMillis
+        sb.append(TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(event.timestampMillis)))
+          .append(FIELD_SEPARATOR).append(event.bitsId)
+          .append(FIELD_SEPARATOR).append(event.type)
+          .append(FIELD_SEPARATOR).append(event.timestampMillis)
+          .append('\n');
+    }
+
+    private long windowOf(long timestamp) {
+        return Math.floorDiv(timestamp, segmentMillis) * segmentMillis;
+    }
+
+    private String segmentName(long window, String suffix) {
+        return SEGMENT_PREFIX + nameFormat.format(Instant.ofEpochMilli(window)) + suffix;
+    }
+
+    private long parseWindow(String stamp) {
+        if (segmentMillis == DAY_MILLIS) {
+            return LocalDate.parse(stamp, DateTimeFormatter.BASIC_ISO_DATE)
+                    .atStartOfDay(LOG_ZONE).toInstant().toEpochMilli();
+        }
+        return LocalDateTime.parse(stamp, DateTimeFormatter.ofPattern("yyyyMMdd-HH"))
+                .toInstant(LOG_ZONE).toEpochMilli();
+    }
+
+    private void closeChannel() {
+        try {
+            if (openChannel != null) {
+                openChannel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing emergency log segment: " + e.getMessage());
+        }
+        openChannel = null;
+    }
+}
@@ -1,46 +1,247 @@
 package util;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Manages logging and alerting for emergency calls.
+ * Calls are published to a lock-free ring buffer and returned immediately; a dedicated
+ * consumer thread persists them to the segmented emergency log (see EmergencyLogStore),
+ * records them in the notification outbox (which delivers them via Telegram with retries)
+ * and fans them out to listeners.
  */
 public class EmergencyLogWriter {
-    private static final String FILE_NAME = "C:\\Users\\vigne\\Documents\\BPDCCLinic\\frontend\\emergency_logs.txt";
-    private static final String LOG_ENTRY_TYPE = "emergencycall_1";
+    private static final String LOG_DIRECTORY =
+        System.getProperty("bpdc.emergencyLog.dir", "C:\\Users\\vigne\\Documents\\BPDCCLinic\\frontend\\emergency_logs");
+    // Segment size ("daily" or "hourly"), when to gzip sealed segments and when to delete them (0 = never)
+    private static final boolean HOURLY_SEGMENTS = "hourly".equalsIgnoreCase(System.getProperty("bpdc.emergencyLog.segment", "daily"));
+    private static final int COMPRESS_AFTER_DAYS = Integer.getInteger("bpdc.emergencyLog.compressAfterDays", 7);
+    private static final int RETENTION_DAYS = Integer.getInteger("bpdc.emergencyLog.retentionDays", 0);
+    private static final String OUTBOX_FILE =
+        System.getProperty("bpdc.notifications.outbox", "C:\\Users\\vigne\\Documents\\BPDCCLinic\\frontend\\notification_outbox.csv");
+    static final String LOG_ENTRY_TYPE = "emergencycall_1";
+    // Logged for presses folded into an open incident, and for the press that escalates it
+    static final String REPEAT_ENTRY_TYPE = "emergencycall_1_repeat";
+    static final String ESCALATED_ENTRY_TYPE = "emergencycall_1_escalated";
+    // Presses by one user this close together form one incident; this many in a window escalate it
+    private static final long INCIDENT_WINDOW_MS = Long.getLong("bpdc.emergency.incidentWindowMs", 5 * 60 * 1000);
+    private static final int ESCALATE_AFTER_PRESSES = Integer.getInteger("bpdc.emergency.escalateAfter", 3);
+    private static final int DELIVERY_THREADS = 4;
+
+    private static final int RING_CAPACITY = 1024;
+    private static final int MAX_BATCH_SIZE = 64;
+    // How long the shutdown hook waits for the consumer to drain the ring
+    private static final long SHUTDOWN_WAIT_MS = 2000;
+
+    // Notified (on the consumer thread) after each event is persisted
+    private static final List<Consumer<EmergencyEvent>> listeners = new CopyOnWriteArrayList<>();
+    private static final EmergencyLogStore logStore =
+        new EmergencyLogStore(Paths.get(LOG_DIRECTORY), HOURLY_SEGMENTS, COMPRESS_AFTER_DAYS, RETENTION_DAYS);
+
+    private static final EmergencyRateLimiter rateLimiter =
+        new EmergencyRateLimiter(INCIDENT_WINDOW_MS, ESCALATE_AFTER_PRESSES);
+
+    private static final NotificationOutbox outbox =
+        new NotificationOutbox(OUTBOX_FILE, List.of(new TelegramNotifier()), DELIVERY_THREADS);
+
+    private static final EmergencyEventRing ring =
+        new EmergencyEventRing(RING_CAPACITY, MAX_BATCH_SIZE, EmergencyLogWriter::persistAndFanOut, "EmergencyEventConsumer");
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(EmergencyLogWriter::awaitDrain, "EmergencyLogFlush"));
+    }
 
     /**
      * Appends an emergency log entry and triggers the Telegram notification.
+     * Returns as soon as the event is queued; the work happens on the consumer thread.
+     * A repeat press while the user's incident is open is logged without a new notification,
+     * unless it escalates the incident (see EmergencyRateLimiter).
      * @param bitsId The ID of the user who triggered the emergency call.
      * @param fullName The full name of the user.
-     * @return true if both logging and notification were successful.
+     * @return A future completed with true once the event is durably logged.
+     */
+    public static CompletableFuture<Boolean> logAndNotifyEmergency(String bitsId, String fullName) {
+        long now = System.currentTimeMillis();
+        // Repeated presses by the same user belong to their open incident: logged, but only notified on escalation
+        String type;
+        switch (rateLimiter.onPress(BitsId.pack(bitsId), now)) {
+            case SUPPRESS: type = REPEAT_ENTRY_TYPE; break;
+            case ESCALATE: type = ESCALATED_ENTRY_TYPE; break;
+            default: type = LOG_ENTRY_TYPE; break;
+        }
+        EmergencyEventRing.Entry entry =
+            new EmergencyEventRing.Entry(new EmergencyEvent(bitsId, fullName, type, now));
+        if (!ring.tryPublish(entry)) {
+            // Ring full: never drop an emergency, handle it on the caller's thread instead
+            persistAndFanOut(Collections.singletonList(entry));
+        }
+        return entry.durable;
+    }
+
+    /**
+     * Registers a listener called for every emergency event once it has been persisted.
+     * Listeners run on the consumer thread and must not block.
+     */
+    public static void addListener(Consumer<EmergencyEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registers a listener called with each alert once its notification channel has confirmed
+     * delivery (at most once per channel). Listeners run on a delivery thread and must not block.
+     */
+    public static void addAcknowledgementListener(Consumer<EmergencyEvent> listener) {
+        outbox.addDeliveryListener(listener);
+    }
+
+    /**
+     * @return Emergency events queued but not yet taken by the consumer.
+     */
+    public static long getQueueDepth() {
+        return ring.depth();
+    }
+
+    /**
+     * @return The deepest the queue has been since startup.
+     */
+    public static long getMaxQueueDepth() {
+        return ring.maxDepth();
+    }
+
+    /**
+     * @return Total emergency events accepted through the ring since startup.
+     */
+    public static long getPublishedCount() {
+        return ring.published();
+    }
+
+    /**
+     * @return Repeat presses logged without a notification since startup.
+     */
+    public static long getSuppressedCount() {
+        return rateLimiter.getSuppressedCount();
+    }
+
+    /**
+     * @return Incidents escalated by repeated presses since startup.
+     */
+    public static long getEscalatedCount() {
+        return rateLimiter.getEscalatedCount();
+    }
+
+    /**
+     * @return Notifications not yet confirmed by their channel.
+     */
+    public static int getPendingNotificationCount() {
+        return outbox.getPendingCount();
+    }
+
+    /**
+     * @param percentile e.g. 50, 95, 99.
+     * @return Emergency-call-to-delivery latency in milliseconds at that percentile (-1 if none yet).
+     */
+    public static long getNotificationLatencyPercentile(double percentile) {
+        return outbox.getLatencyPercentile(percentile);
+    }
+
+    /**
+     * @return Logged emergencies with fromMillis <= timestamp < toMillis, oldest first
+     * (only the segments covering that range are read). Full names are not logged, so they are null.
+     */
+    public static List<EmergencyEvent> findEmergencies(long fromMillis, long toMillis) {
+        return logStore.findBetween(fromMillis, toMillis);
+    }
+
+    /**
+     * @return Every logged emergency raised by the BITS ID, oldest first
+     * (only the segments it appears in are read). Full names are not logged, so they are null.
+     */
+    public static List<EmergencyEvent> findEmergencies(String bitsId) {
+        return logStore.findByBitsId(bitsId);
+    }
+
+    /**
+     * Writes a batch of events to the log with one write and one fsync, records their
+     * notifications in the outbox, confirms durability to the callers, then notifies listeners.
      */
-    public static boolean logAndNotifyEmergency(String bitsId, String fullName) {
+    private static void persistAndFanOut(List<EmergencyEventRing.Entry> batch) {
         boolean logSuccess = false;
-        
-        // 1. Log the event to a local file
-        try (FileWriter fw = new FileWriter(FILE_NAME, true);
-             PrintWriter pw = new PrintWriter(fw)) {
-
-            String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
-            
-            // Format: Timestamp | UserID | LogType
-            String logEntry = String.format("%s | %s | %s", timestamp, bitsId, LOG_ENTRY_TYPE);
-            
-            pw.println(logEntry);
-            logSuccess = true;
 
+        // 1. Log the events to the current segment
+        List<EmergencyEvent> events = new ArrayList<>(batch.size());
+        for (EmergencyEventRing.Entry entry : batch) {
+            events.add(entry.event);
+        }
+        try {
+            logStore.append(events);
+            logSuccess = true;
         } catch (IOException e) {
             System.err.println("Error writing emergency log: " + e.getMessage());
         }
-        
-        
-        
-        // Return true only if BOTH operations were successful
-        return logSuccess ;
+
+        // 2. Queue the Telegram notifications (durable before the caller is told)
+        boolean notifySuccess = false;
+        if (logSuccess) {
+            try {
+                List<EmergencyEvent> alerts = new ArrayList<>(events.size());
+                for (EmergencyEvent event : events) {
+                    if (!REPEAT_ENTRY_TYPE.equals(event.type)) {
+                        alerts.add(event);
+                    }
+                }
+                outbox.enqueueAll(alerts);
+                notifySuccess = true;
+            } catch (IOException e) {
+                System.err.println("Error queueing emergency notification: " + e.getMessage());
+            }
+        }
+
+        // 3. Alerts that were not both logged and queued never went out: reopen them to the next press
+        if (!notifySuccess) {
+            for (EmergencyEvent event : events) {
+                if (LOG_ENTRY_TYPE.equals(event.type)) {
+                    rateLimiter.onAlertFailed(event.bitsKey, EmergencyRateLimiter.Action.OPEN, event.timestampMillis);
+                } else if (ESCALATED_ENTRY_TYPE.equals(event.type)) {
+                    rateLimiter.onAlertFailed(event.bitsKey, EmergencyRateLimiter.Action.ESCALATE, event.timestampMillis);
+                }
+            }
+        }
+
+        // 4. Confirm to the callers, then fan out
+        for (EmergencyEventRing.Entry entry : batch) {
+            // Return true only if BOTH operations were successful
+            entry.durable.complete(logSuccess && notifySuccess);
+        }
+        if (logSuccess) {
+            for (EmergencyEventRing.Entry entry : batch) {
+                for (Consumer<EmergencyEvent> listener : listeners) {
+                    try {
+                        listener.accept(entry.event);
+                    } catch (RuntimeException e) {
+                        System.err.println("Emergency listener error: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives the consumer a moment to persist queued events before the JVM exits.
+     */
+    private static void awaitDrain() {
+        long deadline = System.currentTimeMillis() + SHUTDOWN_WAIT_MS;
+        while (ring.unhandled() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
     }
-}
\ No newline at end of file
+}
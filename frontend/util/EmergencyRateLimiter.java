@@ -0,0 +1,158 @@
+package util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user de-duplication of emergency presses.
+ * The first press opens an incident for the user; further presses while the incident is open
+ * (each within windowMillis of the previous one) belong to it and are suppressed rather than
+ * raising new alerts. If a user presses escalateAfter times within one window, the incident is
+ * escalated, at most once per window, so staff hear about it again without being flooded.
+ * The sliding window is the user's last escalateAfter press times in a small ring: the
+ * threshold is reached when the oldest of them is still inside the window.
+ * A decision only stands once its alert is durable: onAlertFailed() takes back an OPEN or
+ * ESCALATE whose event could not be logged or queued, so a lost alert is raised again.
+ * Safe to call from any thread; each user's state is updated atomically in a concurrent map.
+ */
+class EmergencyRateLimiter {
+
+    /** What to do with one press. */
+    enum Action {
+        OPEN,      // New incident: log and notify
+        SUPPRESS,  // Repeat of an open incident: log only
+        ESCALATE   // Repeat that crossed the threshold: log and notify again
+    }
+
+    // Swept for closed incidents every this many presses
+    private static final int SWEEP_INTERVAL = 1024;
+    private static final long NEVER = Long.MIN_VALUE;
+
+    /**
+     * Open incident for one user.
+     */
+    private static final class Incident {
+        final long[] recentPresses; // Ring of the last escalateAfter press times
+        final long opened;
+        int next = 0;
+        long lastPress;
+        long lastEscalation = NEVER;
+
+        Incident(int escalateAfter, long now) {
+            recentPresses = new long[escalateAfter];
+            opened = now;
+            record(now);
+        }
+
+        void record(long now) {
+            recentPresses[next] = now;
+            next = (next + 1) % recentPresses.length;
+            lastPress = now;
+        }
+    }
+
+    private final long windowMillis;
+    private final int escalateAfter;
+    private final ConcurrentHashMap<Long, Incident> incidents = new ConcurrentHashMap<>();
+    private final AtomicLong presses = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+    private final AtomicLong escalated = new AtomicLong();
+
+    /**
+     * @param windowMillis Presses this close together belong to the same incident.
+     * @param escalateAfter Presses within one window that escalate the incident (at least 2).
+     */
+    EmergencyRateLimiter(long windowMillis, int escalateAfter) {
+        this.windowMillis = windowMillis;
+        this.escalateAfter = Math.max(2, escalateAfter);
+    }
+
+    /**
+     * Records a press by a user and decides how it is handled.
+     * @param bitsKey Packed BITS ID of the user (see BitsId).
+     */
+    Action onPress(long bitsKey, long now) {
+        if (presses.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            sweep(now);
+        }
+        Action[] decided = new Action[1];
+        incidents.compute(bitsKey, (key, current) -> {
+            if (current == null || now - current.lastPress > windowMillis) {
+                decided[0] = Action.OPEN; // Quiet for a whole window: a new incident
+                return new Incident(escalateAfter, now);
+            }
+            current.record(now);
+            long oldest = current.recentPresses[current.next]; // Oldest of the last escalateAfter presses
+            boolean burst = oldest != 0 && now - oldest <= windowMillis;
+            if (burst && (current.lastEscalation == NEVER || now - current.lastEscalation > windowMillis)) {
+                current.lastEscalation = now;
+                decided[0] = Action.ESCALATE;
+            } else {
+                decided[0] = Action.SUPPRESS;
+            }
+            return current;
+        });
+        Action action = decided[0];
+        if (action == Action.SUPPRESS) {
+            suppressed.incrementAndGet();
+        } else if (action == Action.ESCALATE) {
+            escalated.incrementAndGet();
+        }
+        return action;
+    }
+
+    /**
+     * Takes back the decision for a press whose alert was lost (its event could not be logged or
+     * queued for delivery): a failed OPEN forgets the incident, so the user's next press opens it
+     * again and alerts; a failed ESCALATE lets the next press in the window escalate again.
+     * Nothing changes if the incident has since been replaced by a newer one.
+     * @param pressedAt The time passed to onPress() for that press.
+     */
+    void onAlertFailed(long bitsKey, Action action, long pressedAt) {
+        if (action == Action.OPEN) {
+            incidents.computeIfPresent(bitsKey, (key, incident) -> incident.opened == pressedAt ? null : incident);
+        } else if (action == Action.ESCALATE) {
+            boolean[] undone = new boolean[1];
+            incidents.computeIfPresent(bitsKey, (key, incident) -> {
+                if (incident.lastEscalation == pressedAt) {
+                    incident.lastEscalation = NEVER;
+                    undone[0] = true;
+                }
+                return incident;
+            });
+            if (undone[0]) {
+                escalated.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return Presses absorbed into an open incident without a notification.
+     */
+    long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    /**
+     * @return Escalations sent for incidents with repeated presses.
+     */
+    long getEscalatedCount() {
+        return escalated.get();
+    }
+
+    /**
+     * @return Users with an incident still open.
+     */
+    int getOpenIncidentCount() {
+        return incidents.size();
+    }
+
+    /**
+     * Forgets incidents that have been quiet for a whole window.
+     */
+    private void sweep(long now) {
+        for (Long key : incidents.keySet()) {
+            incidents.computeIfPresent(key, (k, incident) -> now - incident.lastPress > windowMillis ? null : incident);
+        }
+    }
+}
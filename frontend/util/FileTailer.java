@@ -0,0 +1,237 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Follows a growing text file (like "tail -f") and hands new lines to subscribers in batches.
+ * Reads through a FileChannel into one reusable direct buffer and decodes UTF-8 correctly,
+ * including characters split across reads. Truncation restarts from the top of the file,
+ * and rotation (the file replaced by a new one) reopens it.
+ */
+public class FileTailer implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    // Re-check the file this often even without a watch event (events can be missed or coalesced)
+    private static final long POLL_INTERVAL_MS = 1000;
+
+    private final Path file;
+    private final List<Consumer<List<String>>> subscribers = new CopyOnWriteArrayList<>();
+
+    // Only touched by the tailer thread
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder partialLine = new StringBuilder();
+    private FileChannel channel;
+    private Object fileKey;
+    private FileTime fileCreated; // Identifies the open file where there is no file key
+
+    // Offset of the next byte to read
+    private volatile long position;
+    private volatile boolean running = false;
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * @param file The file to follow (it does not have to exist yet).
+     * @param startAtEnd true to skip what is already in the file and only report new lines.
+     */
+    public FileTailer(Path file, boolean startAtEnd) {
+        this.file = file.toAbsolutePath();
+        try {
+            this.position = startAtEnd && Files.exists(this.file) ? Files.size(this.file) : 0;
+        } catch (IOException e) {
+            this.position = 0;
+        }
+    }
+
+    /**
+     * Adds a subscriber. Each call receives the complete lines read in one pass, on the tailer thread.
+     */
+    public void subscribe(Consumer<List<String>> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Starts following the file on a background thread.
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        Path dir = file.getParent();
+        if (dir == null) {
+            throw new IOException("Parent directory for " + file + " not found.");
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        running = true;
+        thread = new Thread(this::run, "FileTailer-" + file.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return Offset of the next byte that will be read.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        running = false;
+        if (watchService != null) {
+            watchService.close(); // Wakes the tailer thread
+        }
+    }
+
+    private void run() {
+        try {
+            readNewLines();
+            while (running) {
+                WatchKey key = watchService.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    boolean relevant = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        // Compare file names only; the directory is the one we registered
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                                || file.getFileName().equals(event.context())) {
+                            relevant = true;
+                        }
+                    }
+                    key.reset();
+                    if (!relevant) continue;
+                }
+                readNewLines();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed: stop tailing
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * Reads everything appended since the last pass and publishes the complete lines.
+     */
+    private void readNewLines() {
+        try {
+            if (!Files.exists(file)) {
+                closeChannel();
+                return;
+            }
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            Object currentKey = attributes.fileKey();
+            boolean rotated;
+            if (currentKey != null) {
+                rotated = fileKey != null && !currentKey.equals(fileKey);
+            } else {
+                // No file key (e.g. on Windows): a smaller file, or one created at another time, is a new file
+                rotated = fileCreated != null
+                    && (attributes.size() < position || !attributes.creationTime().equals(fileCreated));
+            }
+            if (channel == null || rotated) {
+                // First open, or the file was replaced: read the new file from the top
+                closeChannel();
+                channel = FileChannel.open(file, StandardOpenOption.READ);
+                if (rotated) {
+                    resetTo(0);
+                }
+                fileKey = currentKey;
+                fileCreated = attributes.creationTime();
+            }
+
+            long size = channel.size();
+            if (size < position) {
+                resetTo(0); // Truncated
+            }
+            if (size == position) {
+                return;
+            }
+
+            List<String> lines = new ArrayList<>();
+            int read;
+            while ((read = channel.read(buffer, position)) > 0) {
+                position += read;
+                buffer.flip();
+                decoder.decode(buffer, chars, false);
+                buffer.compact(); // Keeps the bytes of a character split across reads
+                drainChars(lines);
+            }
+
+            if (!lines.isEmpty()) {
+                for (Consumer<List<String>> subscriber : subscribers) {
+                    subscriber.accept(lines);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error tailing " + file.getFileName() + ": " + e.getMessage());
+            closeChannel();
+        }
+    }
+
+    private void drainChars(List<String> lines) {
+        chars.flip();
+        while (chars.hasRemaining()) {
+            char c = chars.get();
+            if (c == '\n') {
+                int length = partialLine.length();
+                if (length > 0 && partialLine.charAt(length - 1) == '\r') {
+                    partialLine.setLength(length - 1);
+                }
+                lines.add(partialLine.toString());
+                partialLine.setLength(0);
+            } else {
+                partialLine.append(c);
+            }
+        }
+        chars.clear();
+    }
+
+    private void resetTo(long offset) {
+        position = offset;
+        buffer.clear();
+        chars.clear();
+        decoder.reset();
+        partialLine.setLength(0);
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Ignore: nothing left to read from it
+            }
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from long keys to long values with no boxing and no entry objects.
+ * Keys and values live in two parallel arrays (open addressing, linear probing,
+ * power-of-two capacity); removal shifts the following entries back instead of
+ * leaving tombstones. Key 0 is stored outside the arrays, since 0 marks a free slot.
+ * Not thread-safe.
+ */
+public class LongLongHashMap {
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 16;
+
+    // Returned by get/put/remove when the key is absent
+    private final long noValue;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size; // Entries in the arrays (excluding key 0)
+    private int resizeAt;
+
+    private boolean hasZeroKey = false;
+    private long zeroKeyValue;
+
+    /**
+     * @param expectedSize Number of entries to size the table for.
+     * @param noValue Value returned for missing keys (must not be stored as a real value).
+     */
+    public LongLongHashMap(int expectedSize, long noValue) {
+        this.noValue = noValue;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @return The value for the key, or noValue if absent.
+     */
+    public long get(long key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroKeyValue : noValue;
+        }
+        int slot = slotOf(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == 0) return noValue;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        int slot = slotOf(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) return true;
+            if (k == 0) return false;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return The previous value, or noValue if the key was absent.
+     */
+    public long put(long key, long value) {
+        if (key == 0) {
+            long previous = hasZeroKey ? zeroKeyValue : noValue;
+            hasZeroKey = true;
+            zeroKeyValue = value;
+            return previous;
+        }
+        int slot = slotOf(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            if (k == 0) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > resizeAt) {
+                    rehash(keys.length << 1);
+                }
+                return noValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Stores the value only if the key is absent.
+     * @return true if it was stored.
+     */
+    public boolean putIfAbsent(long key, long value) {
+        if (containsKey(key)) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * @return The removed value, or noValue if the key was absent.
+     */
+    public long remove(long key) {
+        if (key == 0) {
+            long previous = hasZeroKey ? zeroKeyValue : noValue;
+            hasZeroKey = false;
+            return previous;
+        }
+        int slot = slotOf(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == 0) return noValue;
+            if (k == key) break;
+            slot = (slot + 1) & mask;
+        }
+        long previous = values[slot];
+        size--;
+
+        // Shift back later entries of the same probe run so lookups never stop early at the hole
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = slotOf(keys[next]);
+            // Move the entry if its home slot is not between the hole and its current slot (cyclically)
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+        return previous;
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes every entry (the table keeps its current capacity).
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    /**
+     * @return Number of slots in the table.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    private int slotOf(long key) {
+        // Finalizer from MurmurHash3: packed IDs differ mostly in a few bit ranges
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int slot = slotOf(key);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR) + 1;
+        int capacity = Integer.highestOneBit((int) Math.min(needed, 1 << 30));
+        if (capacity < needed) capacity <<= 1;
+        return Math.max(MIN_CAPACITY, capacity);
+    }
+}
@@ -0,0 +1,58 @@
+package util;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in Notifier for testing: "delivers" alerts by appending them to a local file.
+ * Duplicate deliveries of the same idempotency key are dropped, like a real receiver would.
+ * A failure rate can be set to exercise the outbox's retry path.
+ */
+public class LoopbackNotifier implements Notifier {
+    private final String fileName;
+    private final double failureRate;
+    private final Random random = new Random();
+    // Keys already delivered (the receiver-side de-duplication)
+    private final Set<String> deliveredKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param fileName File the delivered alerts are appended to.
+     * @param failureRate Fraction of deliveries (0.0 - 1.0) that fail on purpose.
+     */
+    public LoopbackNotifier(String fileName, double failureRate) {
+        this.fileName = fileName;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String channel() {
+        return "loopback";
+    }
+
+    @Override
+    public void deliver(String idempotencyKey, EmergencyEvent event) throws Exception {
+        if (random.nextDouble() < failureRate) {
+            throw new IOException("Simulated delivery failure for " + idempotencyKey);
+        }
+        synchronized (this) {
+            if (deliveredKeys.contains(idempotencyKey)) {
+                return; // Already delivered: drop the duplicate
+            }
+            try (PrintWriter pw = new PrintWriter(new FileWriter(fileName, true))) {
+                pw.println(idempotencyKey + " | " + event.bitsId + " | " + event.fullName + " | " + event.type);
+            }
+            deliveredKeys.add(idempotencyKey);
+        }
+    }
+
+    /**
+     * @return Number of distinct alerts delivered.
+     */
+    public int getDeliveredCount() {
+        return deliveredKeys.size();
+    }
+}
@@ -0,0 +1,225 @@
+package util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Forward-only row cursor over a CSV file, backed by a memory-mapped window of the file.
+ * Rows and fields are located by scanning the mapped bytes in place; nothing is copied
+ * or decoded until a caller asks for a field or row as a String.
+ * Quoted fields may contain commas and newlines.
+ */
+public class MappedCsvScanner implements AutoCloseable {
+
+    // Size of each mapped window; rows crossing a window edge cause a remap at the row start
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position; // Start of the next row, relative to the window
+
+    // Current row (relative to the window); rowEnd excludes the line terminator
+    private int rowStart;
+    private int rowEnd;
+    private boolean rowTerminated;
+    private long terminatedEnd; // File offset just past the last newline-terminated row
+
+    // Last located field (relative to the window), cached for repeated access to one column
+    private int fieldColumn = -1;
+    private int fieldStart;
+    private int fieldEnd;
+
+    // Reused buffer for decoding fields/rows to Strings
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Opens the file and positions the cursor at the given byte offset, which must be a row start.
+     */
+    public MappedCsvScanner(Path path, long offset) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.terminatedEnd = offset;
+        map(offset, WINDOW_SIZE);
+    }
+
+    /**
+     * Advances to the next row.
+     * @return false once the end of the file is reached.
+     */
+    public boolean nextRow() throws IOException {
+        if (windowStart + position >= fileSize) {
+            return false;
+        }
+
+        while (true) {
+            int limit = window.limit();
+            boolean inQuotes = false;
+            for (int i = position; i < limit; i++) {
+                byte b = window.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    startRow(i, true);
+                    position = i + 1;
+                    terminatedEnd = windowStart + position;
+                    return true;
+                }
+            }
+
+            if (windowStart + limit >= fileSize) {
+                // Unterminated last row runs to the end of the file
+                startRow(limit, false);
+                position = limit;
+                return true;
+            }
+
+            // The row crosses the window edge: remap starting at the row (grow if it is huge)
+            map(windowStart + position, Math.max(WINDOW_SIZE, limit - position + WINDOW_SIZE));
+        }
+    }
+
+    /**
+     * @return File offset of the current row's first byte.
+     */
+    public long rowOffset() {
+        return windowStart + rowStart;
+    }
+
+    /**
+     * @return true if the current row ended with a newline (false only for a partial last row).
+     */
+    public boolean isRowTerminated() {
+        return rowTerminated;
+    }
+
+    /**
+     * @return File offset just past the last newline-terminated row read so far.
+     */
+    public long terminatedEnd() {
+        return terminatedEnd;
+    }
+
+    /**
+     * @return true if the current row has at least {@code column + 1} fields.
+     */
+    public boolean hasField(int column) {
+        return locateField(column);
+    }
+
+    /**
+     * Decodes a field the same way CsvTokenizer does (a quoted field loses its quotes and ""
+     * becomes "), then trims surrounding whitespace like the snapshot reader.
+     * @return The field value, or null if the row has fewer columns.
+     */
+    public String field(int column) {
+        if (!locateField(column)) {
+            return null;
+        }
+        int length = fieldEnd - fieldStart;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        int out = 0;
+        int i = fieldStart;
+        if (i < fieldEnd && window.get(i) == '"') {
+            // Quoted field: copy until the closing quote, unescaping ""
+            i++;
+            while (i < fieldEnd) {
+                byte b = window.get(i++);
+                if (b == '"') {
+                    if (i < fieldEnd && window.get(i) == '"') {
+                        i++;
+                    } else {
+                        break; // Closing quote
+                    }
+                }
+                scratch[out++] = b;
+            }
+        }
+        // Unquoted field, or anything left after a closing quote (kept leniently)
+        while (i < fieldEnd) {
+            scratch[out++] = window.get(i++);
+        }
+        return new String(scratch, 0, out, StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Decodes the whole current row (without its line terminator).
+     */
+    public String row() {
+        return decode(rowStart, rowEnd);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void map(long start, int size) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size, fileSize - start));
+        position = 0;
+    }
+
+    private void startRow(int newlineIndex, boolean terminated) {
+        rowStart = position;
+        rowEnd = newlineIndex;
+        if (terminated && rowEnd > rowStart && window.get(rowEnd - 1) == '\r') {
+            rowEnd--;
+        }
+        rowTerminated = terminated;
+        fieldColumn = -1;
+    }
+
+    /**
+     * Finds the bounds of the given column in the current row, skipping commas inside quotes.
+     */
+    private boolean locateField(int column) {
+        if (column == fieldColumn) {
+            return true;
+        }
+        int current = 0;
+        int start = rowStart;
+        boolean inQuotes = false;
+        for (int i = rowStart; i < rowEnd; i++) {
+            byte b = window.get(i);
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == ',' && !inQuotes) {
+                if (current == column) {
+                    setField(column, start, i);
+                    return true;
+                }
+                current++;
+                start = i + 1;
+            }
+        }
+        if (current == column) {
+            setField(column, start, rowEnd);
+            return true;
+        }
+        return false;
+    }
+
+    private void setField(int column, int start, int end) {
+        fieldColumn = column;
+        fieldStart = start;
+        fieldEnd = end;
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        window.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -1,59 +1,241 @@
 package util;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Writes student medical registration data to a CSV file.
  * Demonstrates file I/O and exception handling (try-with-resources).
+ * Registrations are queued and written by one long-lived writer thread, which
+ * coalesces registrations arriving together into a single write (group commit).
+ * Batch size, max latency and fsync can be tuned with the system properties
+ * bpdc.registrations.batchSize, bpdc.registrations.maxLatencyMs and bpdc.registrations.fsync.
  */
 public class MedicalDataWriter {
 
-    private static final String FILE_NAME = "medical_registrations.csv";
+    private static final String FILE_NAME = System.getProperty("bpdc.registrations.file", "medical_registrations.csv");
     // Header updated: Timestamp removed
-    private static final String CSV_HEADER = 
+    private static final String CSV_HEADER =
         "FullName,BITS_ID,Gender,BITS_Email,MobileNo,TelegramNo,BloodType,Allergies,ChronicIllnesses,InsuranceType";
 
+    // Group-commit settings
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int MAX_BATCH_SIZE = Integer.getInteger("bpdc.registrations.batchSize", 128);
+    private static final long MAX_BATCH_LATENCY_MS = Long.getLong("bpdc.registrations.maxLatencyMs", 5);
+    private static final boolean FSYNC_EACH_BATCH = Boolean.getBoolean("bpdc.registrations.fsync");
+    // How long the shutdown hook waits for a batch the writer thread is still assembling
+    private static final long SHUTDOWN_WAIT_MS = 2000;
+
+    /**
+     * A formatted CSV line waiting to be written, with the future to complete once it is.
+     */
+    private static final class PendingWrite {
+        final String line;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        PendingWrite(String line) {
+            this.line = line;
+        }
+    }
+
+    private static final BlockingQueue<PendingWrite> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // Registrations accepted but not yet written (queued or in the writer's current batch)
+    private static final AtomicInteger unwritten = new AtomicInteger();
+    // Guards the channel; held while a batch is written (by the writer thread or the shutdown hook)
+    private static final Object writeLock = new Object();
+    private static FileChannel channel;
+    private static Object channelFile; // Identity of the file the channel has open (see fileIdentity)
+
+    static {
+        Thread writerThread = new Thread(MedicalDataWriter::runWriter, "MedicalDataWriterThread");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        // Write anything still queued when the app exits
+        Runtime.getRuntime().addShutdownHook(new Thread(MedicalDataWriter::flushPending, "MedicalDataWriterFlush"));
+    }
+
     /**
-     * Appends a new user's medical and personal details to a CSV file.
+     * Queues a new user's medical and personal details to be appended to the CSV file.
      * @param data An array of strings containing the collected form data.
-     * @return true if the write was successful, false otherwise.
+     * @return A future completed with true once the row is written, or false if the write failed.
      * Demonstrates Exception Handling.
      */
-    public static boolean writeDataToCsv(String[] data) {
-        File csvFile = new File(FILE_NAME);
-        boolean isNewFile = !csvFile.exists();
+    public static CompletableFuture<Boolean> writeDataToCsv(String[] data) {
+        // Prepare the data line (Timestamp logic removed)
+        // The data array is now written directly, quoted and escaped per RFC 4180.
+        PendingWrite write = new PendingWrite(CsvTokenizer.formatRecord(data));
+        unwritten.incrementAndGet();
+        if (!queue.offer(write)) {
+            unwritten.decrementAndGet();
+            System.err.println("Error writing data to CSV file: registration queue is full.");
+            write.result.complete(false);
+        }
+        return write.result;
+    }
 
-        try (FileWriter fw = new FileWriter(csvFile, true);
-             PrintWriter pw = new PrintWriter(fw)) {
+    /**
+     * Writer thread: waits for a registration, gathers whatever else arrives within
+     * the latency window (up to the batch size), then writes them all at once.
+     * An unexpected error fails that batch only; the thread keeps serving the queue.
+     */
+    private static void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_BATCH_LATENCY_MS);
+                while (batch.size() < MAX_BATCH_SIZE) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Error writing data to CSV file: " + e);
+                completeBatch(batch, false);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
 
+    /**
+     * Drains and writes whatever is still queued, then gives the writer thread a moment
+     * to finish the batch it may be holding (used at shutdown).
+     */
+    private static void flushPending() {
+        List<PendingWrite> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+        long deadline = System.currentTimeMillis() + SHUTDOWN_WAIT_MS;
+        while (unwritten.get() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Appends a batch of lines with a single write (and optional fsync), completes their
+     * futures, then indexes the new rows.
+     */
+    private static void writeBatch(List<PendingWrite> batch) {
+        boolean success = false;
+        try {
+            writeLines(batch);
+            success = true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error writing data to CSV file: " + e);
+            synchronized (writeLock) {
+                closeChannel(); // Reopen on the next batch
+            }
+        }
+        completeBatch(batch, success);
+
+        if (success) {
+            // Index the new rows so they can be looked up without a rescan; the rows are
+            // already written, so a failure here must not fail (or hold up) the registrations
+            try {
+                StudentDataFetcher.onRecordsAppended();
+            } catch (RuntimeException e) {
+                System.err.println("Error indexing new registrations: " + e);
+            }
+        }
+    }
+
+    /**
+     * Completes the futures of a batch that are still pending.
+     */
+    private static void completeBatch(List<PendingWrite> batch, boolean success) {
+        for (PendingWrite write : batch) {
+            if (write.result.complete(success)) {
+                unwritten.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Appends the batch's lines with a single write (and optional fsync).
+     */
+    private static void writeLines(List<PendingWrite> batch) throws IOException {
+        synchronized (writeLock) {
+            FileChannel out = openChannel();
+
+            StringBuilder sb = new StringBuilder(batch.size() * 160);
             // Write header only if the file is new
-            if (isNewFile) {
-                pw.println(CSV_HEADER);
-            }
-
-            // Prepare the data line (Timestamp logic removed)
-            // The data array is now written directly.
-            StringBuilder sb = new StringBuilder();
-            
-            for (int i = 0; i < data.length; i++) {
-                // Wrap in quotes and escape internal quotes
-                sb.append("\"").append(data[i].replace("\"", "\"\"")).append("\"");
-                // Add comma unless it's the last item
-                if (i < data.length - 1) {
-                    sb.append(",");
-                }
+            if (out.size() == 0) {
+                sb.append(CSV_HEADER).append(System.lineSeparator());
+            }
+            for (PendingWrite write : batch) {
+                sb.append(write.line).append(System.lineSeparator());
+            }
+
+            ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+            if (FSYNC_EACH_BATCH) {
+                out.force(false);
             }
-            
-            pw.println(sb.toString());
-            return true;
+        }
+    }
 
+    /**
+     * @return The append channel, opened if needed.
+     * @throws IOException if the CSV was deleted or replaced since the channel was opened: rows
+     * written to the old file would be lost, so the batch fails and the next one reopens the path.
+     */
+    private static FileChannel openChannel() throws IOException {
+        Path path = Paths.get(FILE_NAME);
+        if (channel != null && channel.isOpen()) {
+            if (!Files.exists(path) || !fileIdentity(path).equals(channelFile)) {
+                throw new IOException(FILE_NAME + " was deleted or replaced while open");
+            }
+            return channel;
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        channelFile = fileIdentity(path);
+        return channel;
+    }
+
+    /**
+     * @return The file key of the file at the path, or its creation time where there are no
+     * file keys (e.g. on Windows).
+     */
+    private static Object fileIdentity(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+    }
+
+    private static void closeChannel() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
         } catch (IOException e) {
-            System.err.println("Error writing data to CSV file: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            System.err.println("Error closing CSV file: " + e.getMessage());
         }
+        channel = null;
     }
 }
@@ -0,0 +1,292 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index over the free-text Allergies and ChronicIllnesses columns, so staff can ask
+ * "who is allergic to penicillin" without reading every record.
+ * Text is lower-cased, split on anything that is not a letter or digit, stripped of a few
+ * filler words and lightly stemmed (plurals, -ing, -ed), so "Peanuts" matches "peanut".
+ * Maintained by StudentDataFetcher alongside its offset index.
+ *
+ * Query syntax: words are ANDed; "OR" separates alternatives; "-word" or "NOT word" excludes;
+ * "allergies:word" / "illness:word" restricts a word to one column. Matches are ranked by TF-IDF.
+ */
+public class MedicalTextIndex {
+
+    /**
+     * One matching student, with its relevance score (higher is better).
+     */
+    public static class Hit {
+        public final String bitsId;
+        public final double score;
+
+        Hit(String bitsId, double score) {
+            this.bitsId = bitsId;
+            this.score = score;
+        }
+    }
+
+    // Column flags stored with each posting
+    private static final int FIELD_ALLERGIES = 1;
+    private static final int FIELD_ILLNESSES = 2;
+    private static final int ANY_FIELD = FIELD_ALLERGIES | FIELD_ILLNESSES;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "the", "of", "to", "in", "on", "with", "for", "or", "no", "none", "nil", "na", "not", "any", "known"
+    );
+
+    /**
+     * Documents (students) containing one term, in increasing document order.
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqAndFields = new int[4]; // term frequency << 2 | column flags
+        int size = 0;
+
+        void add(int doc, int field) {
+            if (size > 0 && docs[size - 1] == doc) {
+                freqAndFields[size - 1] = (freqAndFields[size - 1] + 4) | field;
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqAndFields = Arrays.copyOf(freqAndFields, size * 2);
+            }
+            docs[size] = doc;
+            freqAndFields[size] = 4 | field;
+            size++;
+        }
+
+        /** @return Position of doc in this list, or a negative value if absent. */
+        int find(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc);
+        }
+    }
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private long[] docKeys = new long[1024];
+    private int docCount = 0;
+    private final BitSet deleted = new BitSet();
+    private int liveDocs = 0;
+
+    MedicalTextIndex() {
+    }
+
+    /**
+     * Indexes one student's allergies and chronic illnesses.
+     */
+    void add(long bitsKey, String allergies, String chronicIllnesses) {
+        if (docCount == docKeys.length) {
+            docKeys = Arrays.copyOf(docKeys, docCount * 2);
+        }
+        int doc = docCount++;
+        docKeys[doc] = bitsKey;
+        liveDocs++;
+        for (String term : tokenize(allergies)) {
+            terms.computeIfAbsent(term, t -> new Postings()).add(doc, FIELD_ALLERGIES);
+        }
+        for (String term : tokenize(chronicIllnesses)) {
+            terms.computeIfAbsent(term, t -> new Postings()).add(doc, FIELD_ILLNESSES);
+        }
+    }
+
+    /**
+     * Removes a student (used when an unterminated last row is re-read).
+     * The document is only marked deleted; its postings are skipped by queries.
+     */
+    void remove(long bitsKey) {
+        for (int doc = docCount - 1; doc >= 0; doc--) {
+            if (docKeys[doc] == bitsKey && !deleted.get(doc)) {
+                deleted.set(doc);
+                liveDocs--;
+                return;
+            }
+        }
+    }
+
+    void clear() {
+        terms.clear();
+        docCount = 0;
+        deleted.clear();
+        liveDocs = 0;
+    }
+
+    /**
+     * @return Up to limit matching students, best first.
+     */
+    List<Hit> search(String query, int limit) {
+        Map<Integer, Double> scores = new HashMap<>();
+        for (List<String> clause : splitClauses(query)) {
+            scoreClause(clause, scores);
+        }
+
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Double.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Integer.compare(a.getKey(), b.getKey());
+        });
+        List<Hit> hits = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Map.Entry<Integer, Double> entry : ranked) {
+            if (hits.size() == limit) break;
+            hits.add(new Hit(BitsId.unpack(docKeys[entry.getKey()]), entry.getValue()));
+        }
+        return hits;
+    }
+
+    /**
+     * Adds the score of every document matching one AND clause (words, -words, column:words).
+     */
+    private void scoreClause(List<String> words, Map<Integer, Double> scores) {
+        List<Postings> required = new ArrayList<>();
+        List<Integer> requiredFields = new ArrayList<>();
+        List<Postings> excluded = new ArrayList<>();
+        List<Integer> excludedFields = new ArrayList<>();
+
+        boolean negateNext = false;
+        for (String word : words) {
+            if (word.equals("NOT")) {
+                negateNext = true;
+                continue;
+            }
+            boolean negate = negateNext || word.startsWith("-");
+            negateNext = false;
+            String text = word.startsWith("-") ? word.substring(1) : word;
+
+            int field = ANY_FIELD;
+            int colon = text.indexOf(':');
+            if (colon > 0) {
+                String column = text.substring(0, colon).toLowerCase(Locale.ROOT);
+                field = column.startsWith("allerg") ? FIELD_ALLERGIES
+                      : column.startsWith("ill") || column.startsWith("chronic") ? FIELD_ILLNESSES : ANY_FIELD;
+                text = text.substring(colon + 1);
+            }
+            for (String term : tokenize(text)) {
+                Postings postings = terms.get(term);
+                if (negate) {
+                    if (postings != null) {
+                        excluded.add(postings);
+                        excludedFields.add(field);
+                    }
+                } else {
+                    if (postings == null) {
+                        return; // A required word nobody has: the clause matches nothing
+                    }
+                    required.add(postings);
+                    requiredFields.add(field);
+                }
+            }
+        }
+        if (required.isEmpty()) {
+            return; // Only exclusions: nothing to rank
+        }
+
+        // Walk the rarest required term and check the others by binary search
+        int rarest = 0;
+        for (int i = 1; i < required.size(); i++) {
+            if (required.get(i).size < required.get(rarest).size) rarest = i;
+        }
+        Postings lead = required.get(rarest);
+        candidates:
+        for (int p = 0; p < lead.size; p++) {
+            int doc = lead.docs[p];
+            if (deleted.get(doc)) continue;
+            double score = 0;
+            for (int i = 0; i < required.size(); i++) {
+                Postings postings = required.get(i);
+                int at = i == rarest ? p : postings.find(doc);
+                if (at < 0 || (postings.freqAndFields[at] & requiredFields.get(i)) == 0) {
+                    continue candidates;
+                }
+                score += (postings.freqAndFields[at] >>> 2) * idf(postings);
+            }
+            for (int i = 0; i < excluded.size(); i++) {
+                Postings postings = excluded.get(i);
+                int at = postings.find(doc);
+                if (at >= 0 && (postings.freqAndFields[at] & excludedFields.get(i)) != 0) {
+                    continue candidates;
+                }
+            }
+            scores.merge(doc, score, Double::sum);
+        }
+    }
+
+    private double idf(Postings postings) {
+        return Math.log(1.0 + Math.max(liveDocs, 1) / (double) postings.size);
+    }
+
+    /**
+     * Splits a query into OR-separated clauses of words.
+     */
+    private static List<List<String>> splitClauses(String query) {
+        List<List<String>> clauses = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if (word.isEmpty() || word.equals("AND")) continue;
+            if (word.equals("OR")) {
+                clauses.add(current);
+                current = new ArrayList<>();
+            } else {
+                current.add(word);
+            }
+        }
+        clauses.add(current);
+        return clauses;
+    }
+
+    /**
+     * Lower-cases, splits, drops filler words and stems.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    tokens.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Light suffix stripping: plurals (-ies, -es after a sibilant, -s), then -ing and -ed.
+     */
+    static String stem(String word) {
+        int n = word.length();
+        if (n <= 3) {
+            return word;
+        }
+        if (word.endsWith("ies") && !word.endsWith("eies") && !word.endsWith("aies")) {
+            word = word.substring(0, n - 3) + "y";
+        } else if (word.endsWith("ches") || word.endsWith("shes") || word.endsWith("sses") || word.endsWith("xes")) {
+            word = word.substring(0, n - 2); // rashes -> rash
+        } else if (word.endsWith("s") && !word.endsWith("us") && !word.endsWith("ss")) {
+            word = word.substring(0, n - 1);
+        }
+        n = word.length();
+        if (word.endsWith("ing") && n > 5) {
+            word = word.substring(0, n - 3);
+        } else if (word.endsWith("ed") && n > 4) {
+            word = word.substring(0, n - 2);
+        }
+        return word;
+    }
+}
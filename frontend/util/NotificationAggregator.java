@@ -0,0 +1,61 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces items arriving in bursts: the first item after a quiet period opens a window,
+ * and everything added before the window closes is handed to the consumer as one batch.
+ * The consumer runs on the aggregator's own thread, once per window.
+ */
+public class NotificationAggregator<T> {
+
+    private final long windowMillis;
+    private final Consumer<List<T>> consumer;
+    private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param windowMillis How long to keep collecting after the first item of a burst.
+     * @param consumer Receives each batch.
+     */
+    public NotificationAggregator(long windowMillis, Consumer<List<T>> consumer, String threadName) {
+        this.windowMillis = windowMillis;
+        this.consumer = consumer;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Adds items from any thread.
+     */
+    public void addAll(List<T> items) {
+        queue.addAll(items);
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        // Allow the next item to open a new window before draining, so nothing is stranded
+        flushScheduled.set(false);
+        List<T> batch = new ArrayList<>();
+        T item;
+        while ((item = queue.poll()) != null) {
+            batch.add(item);
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+}
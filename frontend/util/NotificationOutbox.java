@@ -0,0 +1,284 @@
+package util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Durable outbox for emergency notifications.
+ * Every emergency becomes one pending delivery per Notifier, recorded in an append-only
+ * journal before any delivery is attempted. A scheduler delivers them in parallel and
+ * retries failures with exponential backoff; pending deliveries survive a restart.
+ * Journal rows (CSV): State, IdempotencyKey, Channel, BITS_ID, FullName, Type, TimestampMillis
+ */
+public class NotificationOutbox {
+
+    private static final String STATE_PENDING = "PENDING";
+    private static final String STATE_DELIVERED = "DELIVERED";
+    private static final String STATE_FAILED = "FAILED";
+
+    // Retry policy: 0.5s, 1s, 2s ... capped at 60s (with jitter), giving up after MAX_ATTEMPTS
+    private static final long INITIAL_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 60_000;
+    private static final int MAX_ATTEMPTS = 50;
+
+    // Most recent delivery latencies kept for the percentile report
+    private static final int LATENCY_SAMPLES = 4096;
+
+    /**
+     * One alert to be delivered through one channel.
+     */
+    private static final class Delivery {
+        final String key;
+        final String channel;
+        final EmergencyEvent event;
+        int attempts = 0;
+
+        Delivery(String key, String channel, EmergencyEvent event) {
+            this.key = key;
+            this.channel = channel;
+            this.event = event;
+        }
+
+        String id() {
+            return key + "/" + channel;
+        }
+    }
+
+    private final Path journal;
+    private final Map<String, Notifier> notifiers = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Delivery> pending = new ConcurrentHashMap<>();
+    private final AtomicLong keySequence = new AtomicLong();
+    // Called after each confirmed delivery
+    private final List<Consumer<EmergencyEvent>> deliveryListeners = new CopyOnWriteArrayList<>();
+    private FileChannel journalChannel;
+
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private long latencyCount = 0;
+
+    /**
+     * Opens the outbox, replays its journal and resumes any deliveries left pending.
+     * @param journalFile Path of the append-only journal.
+     * @param notifiers Channels every alert is delivered through.
+     * @param deliveryThreads Number of deliveries that may run in parallel.
+     */
+    public NotificationOutbox(String journalFile, List<Notifier> notifiers, int deliveryThreads) {
+        this.journal = Paths.get(journalFile);
+        for (Notifier notifier : notifiers) {
+            this.notifiers.put(notifier.channel(), notifier);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(deliveryThreads, r -> {
+            Thread t = new Thread(r, "NotificationDelivery-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            recover();
+        } catch (IOException e) {
+            System.err.println("Error recovering notification outbox: " + e.getMessage());
+        }
+        for (Delivery delivery : pending.values()) {
+            scheduler.execute(() -> attempt(delivery));
+        }
+    }
+
+    /**
+     * Records one pending delivery per channel for each event (one journal write and fsync
+     * for the whole batch), then schedules them for immediate delivery.
+     * @throws IOException if the pending records could not be made durable.
+     */
+    public void enqueueAll(List<EmergencyEvent> events) throws IOException {
+        List<Delivery> deliveries = new ArrayList<>(events.size() * notifiers.size());
+        StringBuilder sb = new StringBuilder();
+        for (EmergencyEvent event : events) {
+            String key = event.timestampMillis + "-" + event.bitsId + "-" + keySequence.incrementAndGet();
+            for (String channel : notifiers.keySet()) {
+                Delivery delivery = new Delivery(key, channel, event);
+                deliveries.add(delivery);
+                appendJournalRow(sb, STATE_PENDING, delivery);
+            }
+        }
+        appendJournal(sb.toString(), true);
+
+        for (Delivery delivery : deliveries) {
+            pending.put(delivery.id(), delivery);
+            scheduler.execute(() -> attempt(delivery));
+        }
+    }
+
+    /**
+     * Registers a listener called (on a delivery thread) with the event of every confirmed delivery.
+     */
+    public void addDeliveryListener(Consumer<EmergencyEvent> listener) {
+        deliveryListeners.add(listener);
+    }
+
+    /**
+     * @return Deliveries not yet confirmed by their channel.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Latency from the emergency call to confirmed delivery, over the most recent deliveries.
+     * @param percentile e.g. 50, 95, 99.
+     * @return The latency in milliseconds, or -1 if nothing has been delivered yet.
+     */
+    public synchronized long getLatencyPercentile(double percentile) {
+        int count = (int) Math.min(latencyCount, LATENCY_SAMPLES);
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * Tries one delivery; on failure it is rescheduled with backoff.
+     */
+    private void attempt(Delivery delivery) {
+        Notifier notifier = notifiers.get(delivery.channel);
+        if (notifier == null) {
+            // Channel no longer configured: nothing can deliver it
+            finish(delivery, STATE_FAILED);
+            return;
+        }
+
+        try {
+            notifier.deliver(delivery.key, delivery.event);
+        } catch (Exception e) {
+            delivery.attempts++;
+            if (delivery.attempts >= MAX_ATTEMPTS) {
+                System.err.println("Giving up on notification " + delivery.id() + ": " + e.getMessage());
+                finish(delivery, STATE_FAILED);
+            } else {
+                scheduler.schedule(() -> attempt(delivery), backoffMillis(delivery.attempts), TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+
+        recordLatency(System.currentTimeMillis() - delivery.event.timestampMillis);
+        finish(delivery, STATE_DELIVERED);
+        for (Consumer<EmergencyEvent> listener : deliveryListeners) {
+            try {
+                listener.accept(delivery.event);
+            } catch (RuntimeException e) {
+                System.err.println("Delivery listener error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void finish(Delivery delivery, String state) {
+        pending.remove(delivery.id());
+        StringBuilder sb = new StringBuilder();
+        appendJournalRow(sb, state, delivery);
+        try {
+            // Not fsynced: if this record is lost the alert is redelivered, and the key lets receivers drop it
+            appendJournal(sb.toString(), false);
+        } catch (IOException e) {
+            System.err.println("Error updating notification outbox: " + e.getMessage());
+        }
+    }
+
+    private static long backoffMillis(int attempts) {
+        long backoff = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(attempts - 1, 20));
+        // Jitter (50-100%) so many failed alerts don't all retry at the same instant
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    private synchronized void recordLatency(long millis) {
+        latencies[(int) (latencyCount % LATENCY_SAMPLES)] = millis;
+        latencyCount++;
+    }
+
+    private static void appendJournalRow(StringBuilder sb, String state, Delivery delivery) {
+        EmergencyEvent event = delivery.event;
+        CsvTokenizer.appendRecord(sb, new String[] {
+            state, delivery.key, delivery.channel, event.bitsId, event.fullName, event.type,
+            String.valueOf(event.timestampMillis)
+        });
+        sb.append(System.lineSeparator());
+    }
+
+    private synchronized void appendJournal(String rows, boolean fsync) throws IOException {
+        if (journalChannel == null || !journalChannel.isOpen()) {
+            journalChannel = FileChannel.open(journal,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(rows.getBytes(StandardCharsets.UTF_8));
+        try {
+            while (bytes.hasRemaining()) {
+                journalChannel.write(bytes);
+            }
+            if (fsync) {
+                journalChannel.force(false);
+            }
+        } catch (IOException e) {
+            journalChannel.close(); // Reopen on the next append
+            throw e;
+        }
+    }
+
+    /**
+     * Replays the journal into the pending map, then compacts it down to the pending rows.
+     */
+    private void recover() throws IOException {
+        if (!Files.exists(journal)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            CsvTokenizer tokenizer = new CsvTokenizer(reader);
+            while (tokenizer.nextRecord()) {
+                if (tokenizer.fieldCount() < 7) continue;
+                try {
+                    EmergencyEvent event = new EmergencyEvent(tokenizer.field(3), tokenizer.field(4),
+                            tokenizer.field(5), Long.parseLong(tokenizer.field(6)));
+                    Delivery delivery = new Delivery(tokenizer.field(1), tokenizer.field(2), event);
+                    if (tokenizer.field(0).equals(STATE_PENDING)) {
+                        pending.put(delivery.id(), delivery);
+                    } else {
+                        pending.remove(delivery.id());
+                    }
+                } catch (NumberFormatException e) {
+                    // Torn or corrupt row: skip it
+                }
+            }
+        }
+
+        // Rewrite the journal with only the still-pending rows
+        StringBuilder sb = new StringBuilder();
+        for (Delivery delivery : pending.values()) {
+            appendJournalRow(sb, STATE_PENDING, delivery);
+        }
+        Path compacted = journal.resolveSibling(journal.getFileName() + ".tmp");
+        Files.write(compacted, sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(compacted, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
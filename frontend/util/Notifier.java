@@ -0,0 +1,21 @@
+package util;
+
+/**
+ * INTERFACE: Notifier
+ * A delivery channel for emergency alerts (Telegram, SMS, a local loopback file, ...).
+ * Used by NotificationOutbox, which retries failed deliveries.
+ */
+public interface Notifier {
+
+    /**
+     * @return A short, stable channel name stored in the outbox journal (e.g. "telegram").
+     */
+    String channel();
+
+    /**
+     * Delivers one alert. The idempotency key is the same on every retry of the same alert,
+     * so receivers can drop duplicates.
+     * @throws Exception if delivery failed and should be retried.
+     */
+    void deliver(String idempotencyKey, EmergencyEvent event) throws Exception;
+}
@@ -0,0 +1,411 @@
+package util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary, column-oriented copy of medical_registrations.csv, written next to it so
+ * a cold start can load the BITS_ID index without parsing the CSV.
+ * The CSV stays the source of truth: a snapshot records the length of the CSV prefix it
+ * was built from, the CRC32C of that prefix's first and last CHECK_BLOCK bytes and the CSV's
+ * modification time, and is only used while they still match (rows appended after the
+ * prefix are indexed from the CSV as usual). Checking costs two small reads, not a full pass.
+ * It is built with bounded memory: each column is spilled to its own temporary file during
+ * the scan, then the files are concatenated into the snapshot.
+ *
+ * Layout (big-endian, columns 8-byte aligned):
+ *   header   magic, version, row count, CSV length, CSV tail checksum, body length,
+ *            body checksum, CSV modification time (-1 if unknown), CSV head checksum
+ *   dicts    Gender, BloodType, InsuranceType: count, then (length, UTF-8 bytes) per value
+ *   keys     long[rows]  packed BITS_ID
+ *   offsets  long[rows]  byte offset of the row in the CSV
+ *   codes    char[rows] per dictionary column
+ *   strings  int[rows * TEXT_COLUMNS + 1]  start of each free-text value in the heap
+ *   heap     UTF-8 bytes of the free-text values
+ */
+class RegistrationSnapshot {
+
+    private static final int MAGIC = 0x42504453; // "BPDS"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int CHECK_BLOCK = 64 * 1024;
+    private static final int COPY_BUFFER = 64 * 1024;
+
+    // CSV columns held as dictionary codes, and as free text (in this order)
+    private static final int[] CODED_COLUMNS = { 2, 6, 9 };
+    private static final int BLOOD_TYPE_CODE = 1; // Position of BloodType in CODED_COLUMNS
+    private static final int[] TEXT_COLUMNS = { 0, 1, 3, 4, 5, 7, 8, 10 };
+    private static final int BITS_ID_COLUMN = 1;
+    private static final int MIN_COLUMNS = 10;
+    private static final int RECORD_COLUMNS = 11;
+
+    private final ByteBuffer data;
+    private final int rowCount;
+    private final long csvLength;
+    private final String[][] dictionaries = new String[CODED_COLUMNS.length][];
+    private final int keysAt;
+    private final int offsetsAt;
+    private final int codesAt;
+    private final int stringsAt;
+    private final int heapAt;
+
+    private RegistrationSnapshot(ByteBuffer data, int rowCount, long csvLength) {
+        this.data = data;
+        this.rowCount = rowCount;
+        this.csvLength = csvLength;
+
+        int position = HEADER_SIZE;
+        for (int d = 0; d < CODED_COLUMNS.length; d++) {
+            int count = data.getInt(position);
+            position += 4;
+            String[] values = new String[count];
+            for (int i = 0; i < count; i++) {
+                int length = data.getInt(position);
+                values[i] = decode(position + 4, length);
+                position += 4 + length;
+            }
+            dictionaries[d] = values;
+        }
+        keysAt = align(position);
+        offsetsAt = keysAt + rowCount * 8;
+        codesAt = offsetsAt + rowCount * 8;
+        stringsAt = align(codesAt + rowCount * 2 * CODED_COLUMNS.length);
+        heapAt = stringsAt + (rowCount * TEXT_COLUMNS.length + 1) * 4;
+    }
+
+    /**
+     * Maps a snapshot and checks it against the CSV.
+     * @return The snapshot, or null if it is missing, corrupt, or no longer matches the CSV.
+     */
+    static RegistrationSnapshot open(Path snapshotFile, Path csvFile) {
+        if (!Files.exists(snapshotFile) || !Files.exists(csvFile)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+                return null;
+            }
+            int rowCount = data.getInt(8);
+            long csvLength = data.getLong(16);
+            long csvTailChecksum = data.getLong(24);
+            long bodyLength = data.getLong(32);
+            long bodyChecksum = data.getLong(40);
+            long csvModified = data.getLong(48);
+            long csvHeadChecksum = data.getLong(56);
+            if (rowCount < 0 || bodyLength != size - HEADER_SIZE) {
+                return null;
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(data.slice(HEADER_SIZE, (int) bodyLength));
+            if (crc.getValue() != bodyChecksum) {
+                return null; // Torn or corrupted snapshot
+            }
+            long csvSize = Files.size(csvFile);
+            if (csvSize < csvLength
+                    || (csvSize == csvLength && Files.getLastModifiedTime(csvFile).toMillis() != csvModified)
+                    || checksumRange(csvFile, 0, Math.min(CHECK_BLOCK, csvLength)) != csvHeadChecksum
+                    || checksumRange(csvFile, Math.max(0, csvLength - CHECK_BLOCK), csvLength) != csvTailChecksum) {
+                return null; // The CSV was rewritten since the snapshot was taken
+            }
+
+            RegistrationSnapshot snapshot = new RegistrationSnapshot(data, rowCount, csvLength);
+            int expectedHeapAt = snapshot.heapAt + snapshot.stringOffset(rowCount * TEXT_COLUMNS.length);
+            return expectedHeapAt == size ? snapshot : null; // Row count must account for the whole file
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading registration snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Builds a snapshot of every complete, newline-terminated row of the CSV and replaces
+     * the snapshot file with it. Nothing is written if the CSV changes during the build.
+     */
+    static void write(Path csvFile, Path snapshotFile) throws IOException {
+        long sizeBefore = Files.size(csvFile);
+        long modifiedBefore = Files.getLastModifiedTime(csvFile).toMillis();
+
+        ColumnDictionary[] dicts = new ColumnDictionary[CODED_COLUMNS.length];
+        for (int d = 0; d < dicts.length; d++) {
+            dicts[d] = new ColumnDictionary("snapshot column " + CODED_COLUMNS[d]);
+        }
+        Path keysFile = spillFile(snapshotFile, "keys");
+        Path offsetsFile = spillFile(snapshotFile, "offsets");
+        Path codesFile = spillFile(snapshotFile, "codes");
+        Path stringsFile = spillFile(snapshotFile, "strings");
+        Path heapFile = spillFile(snapshotFile, "heap");
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            int rows = 0;
+            long heapSize = 0;
+            long csvLength;
+            CsvTokenizer tokenizer = new CsvTokenizer();
+            try (MappedCsvScanner scanner = new MappedCsvScanner(csvFile, 0);
+                 DataOutputStream keys = spill(keysFile);
+                 DataOutputStream offsets = spill(offsetsFile);
+                 DataOutputStream codes = spill(codesFile);
+                 DataOutputStream strings = spill(stringsFile);
+                 DataOutputStream heap = spill(heapFile)) {
+                scanner.nextRow(); // Skip header
+                while (scanner.nextRow()) {
+                    // Same rows the index would take; an unterminated last row is left to the CSV
+                    if (!scanner.isRowTerminated() || !scanner.hasField(MIN_COLUMNS - 1)) continue;
+                    int fields = tokenizer.tokenize(scanner.row());
+
+                    keys.writeLong(BitsId.pack(tokenizer.field(BITS_ID_COLUMN)));
+                    offsets.writeLong(scanner.rowOffset());
+                    for (int d = 0; d < CODED_COLUMNS.length; d++) {
+                        codes.writeChar(dicts[d].encode(tokenizer.field(CODED_COLUMNS[d]).trim()));
+                    }
+                    for (int t = 0; t < TEXT_COLUMNS.length; t++) {
+                        int column = TEXT_COLUMNS[t];
+                        // Column 10 is optional; StudentMedicalData treats a missing one as "N/A"
+                        String value = column < fields ? tokenizer.field(column).trim() : "N/A";
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        if (heapSize + bytes.length > Integer.MAX_VALUE) {
+                            throw new IOException("Registration snapshot would exceed 2 GB");
+                        }
+                        strings.writeInt((int) heapSize);
+                        heap.write(bytes);
+                        heapSize += bytes.length;
+                    }
+                    rows++;
+                }
+                strings.writeInt((int) heapSize);
+                csvLength = scanner.terminatedEnd();
+            }
+
+            long sizeAfter = Files.size(csvFile);
+            long modifiedAfter = Files.getLastModifiedTime(csvFile).toMillis();
+            if (sizeAfter < sizeBefore || (sizeAfter == sizeBefore && modifiedAfter != modifiedBefore)) {
+                return; // Rewritten while we were reading it; try again next time
+            }
+            // The modification time only describes the prefix if nothing follows it
+            long csvModified = sizeAfter == csvLength ? modifiedAfter : -1;
+
+            ByteArrayOutputStream dictBytes = new ByteArrayOutputStream();
+            for (ColumnDictionary dict : dicts) {
+                int count = dict.size();
+                writeInt(dictBytes, count);
+                for (int i = 0; i < count; i++) {
+                    byte[] value = dict.decode((char) i).getBytes(StandardCharsets.UTF_8);
+                    writeInt(dictBytes, value.length);
+                    dictBytes.writeBytes(value);
+                }
+            }
+            long total = align(align(HEADER_SIZE + dictBytes.size()) + rows * 16L + rows * 2L * CODED_COLUMNS.length)
+                    + (rows * (long) TEXT_COLUMNS.length + 1) * 4 + heapSize;
+            if (total > Integer.MAX_VALUE) {
+                throw new IOException("Registration snapshot would exceed 2 GB");
+            }
+
+            // Concatenate the sections behind the header, checksumming the body as it is written,
+            // into a temporary file that is swapped in so readers never see a partial snapshot
+            try (FileChannel channel = FileChannel.open(tmp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                BodyWriter body = new BodyWriter(channel);
+                body.write(ByteBuffer.wrap(dictBytes.toByteArray()));
+                body.pad();
+                body.copy(keysFile);
+                body.copy(offsetsFile);
+                body.copy(codesFile);
+                body.pad();
+                body.copy(stringsFile);
+                body.copy(heapFile);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(0, MAGIC);
+                header.putInt(4, VERSION);
+                header.putInt(8, rows);
+                header.putLong(16, csvLength);
+                header.putLong(24, checksumRange(csvFile, Math.max(0, csvLength - CHECK_BLOCK), csvLength));
+                header.putLong(32, body.position - HEADER_SIZE);
+                header.putLong(40, body.crc.getValue());
+                header.putLong(48, csvModified);
+                header.putLong(56, checksumRange(csvFile, 0, Math.min(CHECK_BLOCK, csvLength)));
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            for (Path spilled : new Path[] { keysFile, offsetsFile, codesFile, stringsFile, heapFile, tmp }) {
+                Files.deleteIfExists(spilled);
+            }
+        }
+    }
+
+    /**
+     * Writes the snapshot body sequentially after the header, keeping its CRC32C up to date.
+     */
+    private static final class BodyWriter {
+        final FileChannel channel;
+        final CRC32C crc = new CRC32C();
+        final ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER);
+        long position = HEADER_SIZE;
+
+        BodyWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(ByteBuffer bytes) throws IOException {
+            crc.update(bytes.duplicate());
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+        }
+
+        /**
+         * Zero-fills up to the next 8-byte boundary.
+         */
+        void pad() throws IOException {
+            write(ByteBuffer.allocate((int) (align(position) - position)));
+        }
+
+        void copy(Path section) throws IOException {
+            try (FileChannel in = FileChannel.open(section, StandardOpenOption.READ)) {
+                while (in.read(buffer.clear()) > 0) {
+                    write(buffer.flip());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Number of rows in the snapshot.
+     */
+    int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return Length of the CSV prefix the snapshot covers (rows after it are not in the snapshot).
+     */
+    long csvLength() {
+        return csvLength;
+    }
+
+    /**
+     * @return The packed BITS_ID of a row. IDs interned in another JVM are packed again here.
+     */
+    long bitsKey(int row) {
+        long key = data.getLong(keysAt + row * 8);
+        return BitsId.isPortable(key) ? key : BitsId.pack(text(row, BITS_ID_COLUMN));
+    }
+
+    /**
+     * @return Byte offset of the row in the CSV.
+     */
+    long csvOffset(int row) {
+        return data.getLong(offsetsAt + row * 8);
+    }
+
+    /**
+     * @return The row's BloodType value.
+     */
+    String bloodType(int row) {
+        return dictionaries[BLOOD_TYPE_CODE][data.getChar(codesAt + (row * CODED_COLUMNS.length + BLOOD_TYPE_CODE) * 2)];
+    }
+
+    /**
+     * @return The row's fields in CSV column order, as StudentMedicalData expects them.
+     */
+    String[] record(int row) {
+        String[] parts = new String[RECORD_COLUMNS];
+        for (int d = 0; d < CODED_COLUMNS.length; d++) {
+            parts[CODED_COLUMNS[d]] = dictionaries[d][data.getChar(codesAt + (row * CODED_COLUMNS.length + d) * 2)];
+        }
+        for (int t = 0; t < TEXT_COLUMNS.length; t++) {
+            parts[TEXT_COLUMNS[t]] = textAt(row * TEXT_COLUMNS.length + t);
+        }
+        return parts;
+    }
+
+    /**
+     * @return The value of a free-text column (see TEXT_COLUMNS) for a row.
+     */
+    String text(int row, int column) {
+        for (int t = 0; t < TEXT_COLUMNS.length; t++) {
+            if (TEXT_COLUMNS[t] == column) {
+                return textAt(row * TEXT_COLUMNS.length + t);
+            }
+        }
+        throw new IllegalArgumentException("Column " + column + " is not a text column");
+    }
+
+    private String textAt(int index) {
+        int start = stringOffset(index);
+        return decode(heapAt + start, stringOffset(index + 1) - start);
+    }
+
+    private int stringOffset(int index) {
+        return data.getInt(stringsAt + index * 4);
+    }
+
+    private String decode(int position, int length) {
+        byte[] bytes = new byte[length];
+        data.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * CRC32C of the bytes of a file between two offsets (at most CHECK_BLOCK of them).
+     */
+    private static long checksumRange(Path file, long from, long to) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer, from + buffer.position()) > 0) {
+                // Keep reading until the range is fully buffered
+            }
+        }
+        crc.update(buffer.flip());
+        return crc.getValue();
+    }
+
+    private static Path spillFile(Path snapshotFile, String section) {
+        return snapshotFile.resolveSibling(snapshotFile.getFileName() + "." + section + ".tmp");
+    }
+
+    private static DataOutputStream spill(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), COPY_BUFFER));
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static int align(int position) {
+        return (position + 7) & ~7;
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
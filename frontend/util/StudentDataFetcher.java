@@ -1,24 +1,85 @@
 package util;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * Utility class to read student medical and personal details from the CSV file.
  * The CSV format (post-timestamp removal): FullName,BITS_ID,Gender,BITS_Email,MobileNo,TelegramID,BloodType,Allergies,ChronicIllnesses,InsuranceType
  * NOTE: Additional columns for Guardian Name/Contact are assumed to follow.
+ * Lookups go through a BITS_ID to byte-offset index (built once, then extended as rows are appended)
+ * and a small LRU cache of parsed records, so repeat lookups never touch the disk.
+ * On a cold start the index is loaded from a binary snapshot of the CSV (see RegistrationSnapshot)
+ * when one matches it, so only rows appended since the snapshot are parsed.
  */
 public class StudentDataFetcher {
 
-    private static final String FILE_NAME = "medical_registrations.csv";
+    // Overridable (bpdc.registrations.file / .snapshot) so benchmarks and load tests can use generated data
+    private static final String FILE_NAME = System.getProperty("bpdc.registrations.file", "medical_registrations.csv");
+    private static final String SNAPSHOT_FILE = System.getProperty("bpdc.registrations.snapshot", "medical_registrations.snapshot");
+    // Rewrite the snapshot at startup once this much of the CSV is not covered by it
+    private static final long SNAPSHOT_REWRITE_BYTES = 1024 * 1024;
     // BITS_ID is at index 1 (FullName is at 0)
+    private static final int FULL_NAME_INDEX = 0;
     private static final int BITS_ID_INDEX = 1; 
+    private static final int BLOOD_TYPE_INDEX = 6;
+    private static final int ALLERGIES_INDEX = 7;
+    private static final int CHRONIC_ILLNESSES_INDEX = 8;
+    // Number of parsed records kept in the LRU cache
+    private static final int CACHE_CAPACITY = 256;
+    // Rows with fewer columns are ignored
+    private static final int MIN_COLUMNS = 10;
+
+    // Packed BITS_ID (see BitsId) -> byte offset of its row (first row wins, like the original scan)
+    private static final LongLongHashMap offsetIndex = new LongLongHashMap(1024, -1L);
+    // Secondary index by blood type, kept in step with offsetIndex (same rows, same lock)
+    private static final BloodTypeIndex bloodTypeIndex = new BloodTypeIndex();
+    // Full-text index over allergies and chronic illnesses, kept the same way
+    private static final MedicalTextIndex textIndex = new MedicalTextIndex();
+    // Name and ID prefix index for autocomplete, kept the same way
+    private static final StudentPrefixIndex prefixIndex = new StudentPrefixIndex();
+    // Byte offset just past the last newline-terminated row that has been indexed
+    private static long indexedSize = 0;
+    // Last-modified time of the file when it was last indexed (-1 = never indexed)
+    private static long indexedModified = -1;
+    // BITS_ID key taken from an unterminated last row; replaced once that row is re-read
+    private static long unterminatedBitsId = BitsId.NONE;
+    // Snapshot the index was loaded from (null if there was no valid one); guarded by the index lock
+    private static RegistrationSnapshot snapshot = null;
+    private static final AtomicBoolean snapshotWriteRunning = new AtomicBoolean(false);
+
+    // Access-ordered map, so the eldest entry is the least recently used one
+    private static final Map<Long, StudentMedicalData> recordCache =
+        new LinkedHashMap<Long, StudentMedicalData>(CACHE_CAPACITY, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, StudentMedicalData> eldest) {
+                return size() > CACHE_CAPACITY;
+            }
+        };
+    private static long cacheHits = 0;
+    private static long cacheMisses = 0;
+    // Reused for every row decoded under the index lock
+    private static final CsvTokenizer rowTokenizer = new CsvTokenizer();
+
+    // Shared dictionaries for the low-cardinality columns
+    private static final ColumnDictionary genderDictionary = new ColumnDictionary("Gender");
+    private static final ColumnDictionary bloodTypeDictionary = new ColumnDictionary("BloodType");
+    private static final ColumnDictionary insuranceTypeDictionary = new ColumnDictionary("InsuranceType");
 
     /**
      * Data class to hold the retrieved student details.
+     * Gender, blood type and insurance type are stored as dictionary codes
+     * (they only take a handful of values) and decoded by their getters.
      */
     public static class StudentMedicalData {
         // Core User Info
@@ -27,11 +88,11 @@ public class StudentDataFetcher {
         public final String email; // Index 3
         
         // Medical/Contact Details (needed for Student constructor)
-        public final String gender; // Index 2
+        private final char genderCode; // Index 2
         public final String allergies; // Index 7
         public final String chronicIllnesses; // Index 8
-        public final String insuranceType; // Index 9
-        public final String bloodType; // Index 6
+        private final char insuranceTypeCode; // Index 9
+        private final char bloodTypeCode; // Index 6
         public final String mobileNo; // Index 4 (Mobile contact)
         public final String studentTelegramId; // Index 5
         
@@ -40,8 +101,8 @@ public class StudentDataFetcher {
         public final String guardianContact;
 
         public StudentMedicalData(String[] parts) {
-            // Helper function to remove quotes and trim
-            Function<String, String> clean = s -> s.replace("\"", "").trim();
+            // Helper function to trim (quotes are already removed by CsvTokenizer)
+            Function<String, String> clean = String::trim;
             
             // Expected columns: FullName(0), BITS_ID(1), Gender(2), BITS_Email(3), MobileNo(4), TelegramID(5), BloodType(6), Allergies(7), ChronicIllnesses(8), InsuranceType(9)
             // Note: We need to adjust indices if Guardian Name/Contact were added later in MedicalInfoForm.java 
@@ -49,15 +110,15 @@ public class StudentDataFetcher {
 
             this.fullName = clean.apply(parts[0]);
             this.bitsId = clean.apply(parts[1]);
-            this.gender = clean.apply(parts[2]);
+            this.genderCode = genderDictionary.encode(clean.apply(parts[2]));
             this.email = clean.apply(parts[3]);
 
             this.mobileNo = clean.apply(parts[4]);
             this.studentTelegramId = clean.apply(parts[5]);
-            this.bloodType = clean.apply(parts[6]);
+            this.bloodTypeCode = bloodTypeDictionary.encode(clean.apply(parts[6]));
             this.allergies = clean.apply(parts[7]);
             this.chronicIllnesses = clean.apply(parts[8]);
-            this.insuranceType = clean.apply(parts[9]);
+            this.insuranceTypeCode = insuranceTypeDictionary.encode(clean.apply(parts[9]));
 
             // Assuming Guardian Name and Contact follow in the CSV if they were captured by MedicalDataWriter
             // Since MedicalInfoForm only created a 10-item array, we fetch them from the data we have.
@@ -65,6 +126,18 @@ public class StudentDataFetcher {
             this.guardianName = "N/A"; // This data isn't saved explicitly in the 10-field array
             this.guardianContact = parts.length > 10 ? clean.apply(parts[10]) : "N/A"; // Using MobileNo as proxy if required
         }
+
+        public String getGender() {
+            return genderDictionary.decode(genderCode);
+        }
+
+        public String getBloodType() {
+            return bloodTypeDictionary.decode(bloodTypeCode);
+        }
+
+        public String getInsuranceType() {
+            return insuranceTypeDictionary.decode(insuranceTypeCode);
+        }
     }
 
 
@@ -74,27 +147,354 @@ public class StudentDataFetcher {
      * @return An Optional containing the StudentMedicalData object if found.
      */
     public static Optional<StudentMedicalData> fetchStudentData(String bitsId) {
-        try (BufferedReader br = new BufferedReader(new FileReader(FILE_NAME))) {
-            String line;
-            br.readLine(); // Skip header
-            
-            while ((line = br.readLine()) != null) {
-                // Use simple comma split for tokenization
-                String[] parts = line.split(",");
-                
-                // Expect at least 10 columns now
-                if (parts.length < 10) continue; 
-                
-                // BITS_ID is at index 1
-                String storedBitsId = parts[BITS_ID_INDEX].replace("\"", "").trim();
+        long key = BitsId.find(bitsId);
 
-                if (storedBitsId.equalsIgnoreCase(bitsId.trim())) {
-                    return Optional.of(new StudentMedicalData(parts));
+        synchronized (offsetIndex) {
+            refreshIndex();
+            if (key == BitsId.NONE) {
+                // Not a packable ID: it may have been interned by the refresh just now
+                key = BitsId.find(bitsId);
+                if (key == BitsId.NONE) {
+                    return Optional.empty();
+                }
+            }
+
+            StudentMedicalData cached = recordCache.get(key);
+            if (cached != null) {
+                cacheHits++;
+                return Optional.of(cached);
+            }
+            cacheMisses++;
+
+            try {
+                Optional<String> row = readIndexedRow(key);
+                if (row.isEmpty() && offsetIndex.containsKey(key)) {
+                    // The file changed under the index (e.g. rewritten elsewhere): rebuild once and retry
+                    resetIndex();
+                    refreshIndex();
+                    row = readIndexedRow(key);
+                }
+                if (row.isPresent()) {
+                    rowTokenizer.tokenize(row.get());
+                    StudentMedicalData data = new StudentMedicalData(rowTokenizer.toArray());
+                    recordCache.put(key, data);
+                    return Optional.of(data);
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading medical registration file: " + e.getMessage());
+            }
+        }
+        return Optional.empty(); 
+    }
+
+    /**
+     * Streams every registration in file order, e.g. for an admin export.
+     * Rows covered by the snapshot are read from it; the rest are located in place over
+     * a memory-mapped view of the CSV. Only rows with the full set of columns are materialised.
+     */
+    public static void forEachRecord(Consumer<StudentMedicalData> action) {
+        Path path = Paths.get(FILE_NAME);
+        if (!Files.exists(path)) {
+            return;
+        }
+        RegistrationSnapshot covered;
+        synchronized (offsetIndex) {
+            refreshIndex(); // Drops the snapshot if the CSV was rewritten
+            covered = snapshot;
+        }
+        long offset = 0;
+        if (covered != null) {
+            for (int row = 0; row < covered.rowCount(); row++) {
+                action.accept(new StudentMedicalData(covered.record(row)));
+            }
+            offset = covered.csvLength();
+        }
+
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        try (MappedCsvScanner scanner = new MappedCsvScanner(path, offset)) {
+            if (offset == 0) {
+                scanner.nextRow(); // Skip header
+            }
+            while (scanner.nextRow()) {
+                if (scanner.hasField(MIN_COLUMNS - 1)) {
+                    tokenizer.tokenize(scanner.row());
+                    action.accept(new StudentMedicalData(tokenizer.toArray()));
                 }
             }
         } catch (IOException e) {
             System.err.println("Error reading medical registration file: " + e.getMessage());
         }
-        return Optional.empty(); 
     }
-}
\ No newline at end of file
+
+    /**
+     * Finds every registered student whose blood can be given to a recipient of the given type,
+     * using the blood type index (no records are read).
+     * @param recipientBloodType e.g. "AB+", "ab+ve", "O Negative".
+     * @return Packed BITS IDs (see BitsId) of compatible donors, same type first;
+     * empty if the type is not recognised. Unpack only the ones you display.
+     */
+    public static long[] findCompatibleDonorKeys(String recipientBloodType) {
+        synchronized (offsetIndex) {
+            refreshIndex();
+            return bloodTypeIndex.compatibleDonors(recipientBloodType);
+        }
+    }
+
+    /**
+     * Same as findCompatibleDonorKeys, with the IDs unpacked.
+     * @return BITS IDs of compatible donors, same type first; empty if the type is not recognised.
+     */
+    public static List<String> findCompatibleDonors(String recipientBloodType) {
+        long[] keys = findCompatibleDonorKeys(recipientBloodType);
+        List<String> donors = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            donors.add(BitsId.unpack(key));
+        }
+        return donors;
+    }
+
+    /**
+     * Searches the allergies and chronic illnesses of every registered student through the
+     * full-text index (see MedicalTextIndex for the query syntax), e.g. "penicillin",
+     * "allergies:peanut OR allergies:shellfish", "asthma -seasonal".
+     * @param limit Maximum number of results.
+     * @return Matching students, most relevant first.
+     */
+    public static List<MedicalTextIndex.Hit> searchMedicalNotes(String query, int limit) {
+        synchronized (offsetIndex) {
+            refreshIndex();
+            return textIndex.search(query, limit);
+        }
+    }
+
+    /**
+     * Autocomplete for student lookups: finds students by the start of their BITS ID or of
+     * any of their names, case-insensitively (e.g. "2024a7", "rah", "kumar").
+     * @param limit Maximum number of suggestions.
+     * @return Matching students in alphabetical order of the matched text; empty for a blank prefix.
+     */
+    public static List<StudentPrefixIndex.Match> suggestStudents(String prefix, int limit) {
+        synchronized (offsetIndex) {
+            refreshIndex();
+            return prefixIndex.search(prefix, limit);
+        }
+    }
+
+    /**
+     * @return Number of registered students with exactly this blood type.
+     */
+    public static int countByBloodType(String bloodType) {
+        synchronized (offsetIndex) {
+            refreshIndex();
+            return bloodTypeIndex.count(bloodType);
+        }
+    }
+
+    /**
+     * @return Number of lookups answered from the record cache.
+     */
+    public static long getCacheHits() {
+        synchronized (offsetIndex) {
+            return cacheHits;
+        }
+    }
+
+    /**
+     * @return Number of lookups that had to go to the index (and the file).
+     */
+    public static long getCacheMisses() {
+        synchronized (offsetIndex) {
+            return cacheMisses;
+        }
+    }
+
+    /**
+     * Called by MedicalDataWriter after it appends rows, so the new rows are indexed
+     * straight away. Does nothing until the index has been built by a first lookup.
+     */
+    static void onRecordsAppended() {
+        synchronized (offsetIndex) {
+            if (indexedModified != -1) {
+                refreshIndex();
+            }
+        }
+    }
+
+    /**
+     * Brings the offset index up to date with the file on disk (caller holds the index lock).
+     * If the file only grew, just the new tail is indexed; if it shrank or was rewritten,
+     * the index and the record cache are rebuilt from scratch.
+     */
+    private static void refreshIndex() {
+        Path path = Paths.get(FILE_NAME);
+        try {
+            if (!Files.exists(path)) {
+                resetIndex();
+                return;
+            }
+
+            long size = Files.size(path);
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (size == indexedSize && modified == indexedModified) {
+                return; // Index is current
+            }
+
+            if (size < indexedSize || (size == indexedSize && modified != indexedModified)) {
+                // Truncated or rewritten: start over
+                offsetIndex.clear();
+                bloodTypeIndex.clear();
+                textIndex.clear();
+                prefixIndex.clear();
+                recordCache.clear();
+                indexedSize = 0;
+                snapshot = null;
+            } else if (unterminatedBitsId != BitsId.NONE) {
+                // The unterminated row is about to be read again, possibly completed
+                offsetIndex.remove(unterminatedBitsId);
+                bloodTypeIndex.remove(unterminatedBitsId);
+                textIndex.remove(unterminatedBitsId);
+                prefixIndex.remove(unterminatedBitsId);
+                recordCache.remove(unterminatedBitsId);
+            }
+            unterminatedBitsId = BitsId.NONE;
+
+            if (indexedSize == 0) {
+                // Building from scratch: start from the snapshot if it still matches the CSV
+                loadSnapshot(path);
+                if (snapshot == null || size - indexedSize > SNAPSHOT_REWRITE_BYTES) {
+                    writeSnapshotInBackground(path);
+                }
+            }
+            indexedSize = indexFrom(path, indexedSize);
+            indexedModified = modified;
+        } catch (IOException e) {
+            System.err.println("Error indexing medical registration file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the index and the record cache so the next refresh rebuilds them (caller holds the index lock).
+     */
+    private static void resetIndex() {
+        offsetIndex.clear();
+        bloodTypeIndex.clear();
+        textIndex.clear();
+        prefixIndex.clear();
+        recordCache.clear();
+        indexedSize = 0;
+        indexedModified = -1;
+        unterminatedBitsId = BitsId.NONE;
+        snapshot = null;
+    }
+
+    /**
+     * Fills the empty index from the snapshot, if there is one matching the CSV (caller holds the index lock).
+     * Afterwards indexedSize points at the first CSV byte the snapshot does not cover.
+     */
+    private static void loadSnapshot(Path path) {
+        snapshot = RegistrationSnapshot.open(Paths.get(SNAPSHOT_FILE), path);
+        if (snapshot == null) {
+            return;
+        }
+        for (int row = 0; row < snapshot.rowCount(); row++) {
+            long key = snapshot.bitsKey(row);
+            if (offsetIndex.putIfAbsent(key, snapshot.csvOffset(row))) {
+                bloodTypeIndex.add(key, snapshot.bloodType(row));
+                textIndex.add(key, snapshot.text(row, ALLERGIES_INDEX), snapshot.text(row, CHRONIC_ILLNESSES_INDEX));
+                prefixIndex.add(key, BitsId.unpack(key), snapshot.text(row, FULL_NAME_INDEX));
+            }
+        }
+        indexedSize = snapshot.csvLength();
+    }
+
+    /**
+     * Makes sure a snapshot matching the CSV exists, writing it on the calling thread if not
+     * (e.g. after a bulk import or before a benchmark), so the next cold start loads it instead
+     * of starting a rebuild in the background.
+     */
+    public static void prepareSnapshot() throws IOException {
+        Path path = Paths.get(FILE_NAME);
+        if (!Files.exists(path) || RegistrationSnapshot.open(Paths.get(SNAPSHOT_FILE), path) != null) {
+            return;
+        }
+        while (!snapshotWriteRunning.compareAndSet(false, true)) {
+            Thread.onSpinWait(); // A background rebuild is running; write after it so the files don't collide
+        }
+        try {
+            RegistrationSnapshot.write(path, Paths.get(SNAPSHOT_FILE));
+        } finally {
+            snapshotWriteRunning.set(false);
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot from the CSV on a background thread (at most one at a time).
+     */
+    private static void writeSnapshotInBackground(Path path) {
+        if (!snapshotWriteRunning.compareAndSet(false, true)) {
+            return;
+        }
+        Thread writer = new Thread(() -> {
+            try {
+                RegistrationSnapshot.write(path, Paths.get(SNAPSHOT_FILE));
+            } catch (IOException e) {
+                System.err.println("Error writing registration snapshot: " + e.getMessage());
+            } finally {
+                snapshotWriteRunning.set(false);
+            }
+        }, "RegistrationSnapshotWriter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Scans the file from the given byte offset, recording the offset of every row.
+     * Only the fields the indexes need are decoded.
+     * @return The offset just past the last newline-terminated row.
+     */
+    private static long indexFrom(Path path, long offset) throws IOException {
+        try (MappedCsvScanner scanner = new MappedCsvScanner(path, offset)) {
+            if (offset == 0) {
+                scanner.nextRow(); // Skip header
+            }
+            while (scanner.nextRow()) {
+                // Expect at least 10 columns now
+                if (!scanner.hasField(MIN_COLUMNS - 1)) continue;
+
+                // BITS_ID is at index 1
+                long key = BitsId.pack(scanner.field(BITS_ID_INDEX));
+                boolean added = offsetIndex.putIfAbsent(key, scanner.rowOffset());
+                if (added) {
+                    bloodTypeIndex.add(key, scanner.field(BLOOD_TYPE_INDEX));
+                    textIndex.add(key, scanner.field(ALLERGIES_INDEX), scanner.field(CHRONIC_ILLNESSES_INDEX));
+                    prefixIndex.add(key, scanner.field(BITS_ID_INDEX), scanner.field(FULL_NAME_INDEX));
+                }
+                if (added && !scanner.isRowTerminated()) {
+                    // Unterminated last row: keep it, but re-read it on the next refresh
+                    unterminatedBitsId = key;
+                }
+            }
+            return scanner.terminatedEnd();
+        }
+    }
+
+    /**
+     * Reads the row the index points to for this key, checking that the row at that
+     * offset still carries the same BITS_ID before decoding the rest of it.
+     * @return The row, or empty if the key is not indexed or the offset is stale.
+     */
+    private static Optional<String> readIndexedRow(long key) throws IOException {
+        long offset = offsetIndex.get(key);
+        Path path = Paths.get(FILE_NAME);
+        if (offset < 0 || !Files.exists(path) || offset >= Files.size(path)) {
+            return Optional.empty();
+        }
+        try (MappedCsvScanner scanner = new MappedCsvScanner(path, offset)) {
+            if (scanner.nextRow() && scanner.hasField(MIN_COLUMNS - 1)
+                    && BitsId.find(scanner.field(BITS_ID_INDEX)) == key) { // Same normalization as the key
+                return Optional.of(scanner.row());
+            }
+        }
+        return Optional.empty();
+    }
+}
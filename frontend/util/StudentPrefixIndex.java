@@ -0,0 +1,272 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prefix index over student names and BITS IDs, for autocomplete.
+ * Every indexed term is a lower-cased slice of one shared char array: the BITS ID, the full name,
+ * and the rest of the name from each later word ("kumar" in "rahul kumar"), so a student is found
+ * by the start of any name or of the ID. The term slices are kept sorted, so a lookup is a binary
+ * search for the prefix followed by a short scan. New students go into a small unsorted batch that
+ * is merged in before the next lookup. Maintained by StudentDataFetcher alongside its offset index.
+ */
+public class StudentPrefixIndex {
+
+    /**
+     * One suggested student.
+     */
+    public static class Match {
+        public final String bitsId;
+        public final String fullName;
+
+        Match(String bitsId, String fullName) {
+            this.bitsId = bitsId;
+            this.fullName = fullName;
+        }
+
+        @Override
+        public String toString() {
+            return fullName + " (" + bitsId + ")";
+        }
+    }
+
+    // Text of every student: display name, then lower-cased name, then lower-cased ID
+    private char[] heap = new char[16 * 1024];
+    private int heapSize = 0;
+
+    // Per student: packed key and where its display name is in the heap
+    private long[] docKeys = new long[1024];
+    private int[] nameStart = new int[1024];
+    private int[] nameLength = new int[1024];
+    private int docCount = 0;
+    private final BitSet deleted = new BitSet();
+
+    // Terms in sorted order: heap slice and student
+    private int[] termStart = new int[0];
+    private int[] termLength = new int[0];
+    private int[] termDoc = new int[0];
+    private int termCount = 0;
+
+    // Terms added since the last merge, unsorted
+    private int[] pendingStart = new int[1024];
+    private int[] pendingLength = new int[1024];
+    private int[] pendingDoc = new int[1024];
+    private int pendingCount = 0;
+
+    StudentPrefixIndex() {
+    }
+
+    /**
+     * Indexes one student by BITS ID and full name.
+     */
+    void add(long bitsKey, String bitsId, String fullName) {
+        String name = normalizeSpaces(fullName);
+        String id = bitsId.trim().toLowerCase(Locale.ROOT);
+        if (docCount == docKeys.length) {
+            int capacity = docCount * 2;
+            docKeys = Arrays.copyOf(docKeys, capacity);
+            nameStart = Arrays.copyOf(nameStart, capacity);
+            nameLength = Arrays.copyOf(nameLength, capacity);
+        }
+        int doc = docCount++;
+        docKeys[doc] = bitsKey;
+        nameStart[doc] = append(name);
+        nameLength[doc] = name.length();
+
+        if (!id.isEmpty()) {
+            addPending(append(id), id.length(), doc);
+        }
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (lower.length() != name.length()) {
+            return; // Lower-casing changed the length (rare scripts): only the ID is searchable
+        }
+        int start = append(lower);
+        for (int i = 0; i < lower.length(); i++) {
+            if (i == 0 || lower.charAt(i - 1) == ' ') {
+                addPending(start + i, lower.length() - i, doc);
+            }
+        }
+    }
+
+    /**
+     * Removes a student (used when an unterminated last row is re-read).
+     * The student is only marked deleted; its terms are skipped by lookups.
+     */
+    void remove(long bitsKey) {
+        for (int doc = docCount - 1; doc >= 0; doc--) {
+            if (docKeys[doc] == bitsKey && !deleted.get(doc)) {
+                deleted.set(doc);
+                return;
+            }
+        }
+    }
+
+    void clear() {
+        heapSize = 0;
+        docCount = 0;
+        deleted.clear();
+        termCount = 0;
+        pendingCount = 0;
+    }
+
+    /**
+     * @return Up to limit students whose ID or one of whose names starts with the prefix
+     * (case-insensitive), in alphabetical order of the matching text; empty for a blank prefix.
+     */
+    List<Match> search(String prefix, int limit) {
+        String query = normalizeSpaces(prefix).toLowerCase(Locale.ROOT);
+        List<Match> matches = new ArrayList<>();
+        if (query.isEmpty() || limit <= 0) {
+            return matches;
+        }
+        mergePending();
+
+        int[] found = new int[limit];
+        int foundCount = 0;
+        terms:
+        for (int t = lowerBound(query); t < termCount && foundCount < limit; t++) {
+            if (!startsWith(t, query)) {
+                break;
+            }
+            int doc = termDoc[t];
+            if (deleted.get(doc)) {
+                continue;
+            }
+            for (int i = 0; i < foundCount; i++) {
+                if (found[i] == doc) continue terms; // Already matched through another term
+            }
+            found[foundCount++] = doc;
+            matches.add(new Match(BitsId.unpack(docKeys[doc]), new String(heap, nameStart[doc], nameLength[doc])));
+        }
+        return matches;
+    }
+
+    private int append(String text) {
+        int start = heapSize;
+        if (heapSize + text.length() > heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(heap.length * 2, heapSize + text.length()));
+        }
+        text.getChars(0, text.length(), heap, heapSize);
+        heapSize += text.length();
+        return start;
+    }
+
+    private void addPending(int start, int length, int doc) {
+        if (pendingCount == pendingStart.length) {
+            int capacity = pendingCount * 2;
+            pendingStart = Arrays.copyOf(pendingStart, capacity);
+            pendingLength = Arrays.copyOf(pendingLength, capacity);
+            pendingDoc = Arrays.copyOf(pendingDoc, capacity);
+        }
+        pendingStart[pendingCount] = start;
+        pendingLength[pendingCount] = length;
+        pendingDoc[pendingCount] = doc;
+        pendingCount++;
+    }
+
+    /**
+     * Sorts the pending terms and merges them into the sorted terms.
+     */
+    private void mergePending() {
+        if (pendingCount == 0) {
+            return;
+        }
+        Integer[] order = new Integer[pendingCount];
+        for (int i = 0; i < pendingCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compare(pendingStart[a], pendingLength[a], pendingStart[b], pendingLength[b]));
+
+        int total = termCount + pendingCount;
+        int[] starts = new int[total];
+        int[] lengths = new int[total];
+        int[] docs = new int[total];
+        int t = 0;
+        int p = 0;
+        for (int out = 0; out < total; out++) {
+            boolean takeTerm = p == pendingCount || (t < termCount
+                && compare(termStart[t], termLength[t], pendingStart[order[p]], pendingLength[order[p]]) <= 0);
+            if (takeTerm) {
+                starts[out] = termStart[t];
+                lengths[out] = termLength[t];
+                docs[out] = termDoc[t];
+                t++;
+            } else {
+                int i = order[p++];
+                starts[out] = pendingStart[i];
+                lengths[out] = pendingLength[i];
+                docs[out] = pendingDoc[i];
+            }
+        }
+        termStart = starts;
+        termLength = lengths;
+        termDoc = docs;
+        termCount = total;
+        pendingCount = 0;
+    }
+
+    /**
+     * @return Position of the first sorted term not less than the query.
+     */
+    private int lowerBound(String query) {
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareToQuery(mid, query) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int startA, int lengthA, int startB, int lengthB) {
+        int n = Math.min(lengthA, lengthB);
+        for (int i = 0; i < n; i++) {
+            int diff = heap[startA + i] - heap[startB + i];
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return lengthA - lengthB;
+    }
+
+    private int compareToQuery(int term, String query) {
+        int start = termStart[term];
+        int length = termLength[term];
+        int n = Math.min(length, query.length());
+        for (int i = 0; i < n; i++) {
+            int diff = heap[start + i] - query.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - query.length();
+    }
+
+    private boolean startsWith(int term, String query) {
+        if (termLength[term] < query.length()) {
+            return false;
+        }
+        int start = termStart[term];
+        for (int i = 0; i < query.length(); i++) {
+            if (heap[start + i] != query.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Trims and collapses runs of whitespace to one space.
+     */
+    private static String normalizeSpaces(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,72 @@
+package util;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Sends emergency alerts to the clinic nurses' and wardens' Telegram groups.
+ * NOTE: This is a mock; the API call is printed to the console instead of being sent.
+ */
+public class TelegramNotifier implements Notifier {
+    private static final String BOT_TOKEN = "MOCK_TELEGRAM_BOT_TOKEN";
+    private static final String NURSE_CHAT_ID = "-100123456789";
+    private static final String WARDEN_CHAT_ID = "-100987654321";
+
+    /**
+     * Sends the emergency alert message to the nurse and warden groups.
+     * @param bitsId The ID of the user who triggered the emergency call.
+     * @param fullName The full name of the user.
+     * @param timestampMillis When the emergency was raised (not when the alert is delivered,
+     *                        which can be much later after retries or a restart).
+     * @return true if the alert was sent.
+     */
+    public static boolean sendEmergencyAlert(String bitsId, String fullName, long timestampMillis) {
+        String message = String.format(
+            "🚨 *EMERGENCY ALERT (BPDC-Dubai)* 🚨\nUser: %s (ID: %s)\nTime: %s\n"
+            + "Action Required: Locate user and respond immediately.\n"
+            + "Location: BITS Pilani, Dubai Campus (Weather is hot/humid today, proceed with caution).",
+            fullName, bitsId, new Date(timestampMillis).toString());
+
+        return send(message);
+    }
+
+    @Override
+    public String channel() {
+        return "telegram";
+    }
+
+    /**
+     * Sends a follow-up for an open emergency whose user keeps pressing the button.
+     * @param timestampMillis When the escalating press happened.
+     * @return true if the alert was sent.
+     */
+    public static boolean sendEscalationAlert(String bitsId, String fullName, long timestampMillis) {
+        String message = String.format(
+            "🚨 *EMERGENCY ESCALATED (BPDC-Dubai)* 🚨\nUser: %s (ID: %s)\nTime: %s\n"
+            + "The user has pressed the emergency button repeatedly since the first alert.\n"
+            + "Action Required: Confirm someone is on the way.",
+            fullName, bitsId, new Date(timestampMillis).toString());
+
+        return send(message);
+    }
+
+    /**
+     * Posts a message to the nurse and warden groups (mocked: printed to the console).
+     */
+    private static boolean send(String message) {
+        System.out.println("--- MOCK TELEGRAM API CALL ---");
+        System.out.println("Sent to Nurses (ID: " + NURSE_CHAT_ID + "): " + message);
+        System.out.println("Sent to Wardens (ID: " + WARDEN_CHAT_ID + "): " + message);
+        return true;
+    }
+
+    @Override
+    public void deliver(String idempotencyKey, EmergencyEvent event) throws Exception {
+        boolean sent = EmergencyLogWriter.ESCALATED_ENTRY_TYPE.equals(event.type)
+            ? sendEscalationAlert(event.bitsId, event.fullName, event.timestampMillis)
+            : sendEmergencyAlert(event.bitsId, event.fullName, event.timestampMillis);
+        if (!sent) {
+            throw new IOException("Telegram API rejected alert " + idempotencyKey);
+        }
+    }
+}